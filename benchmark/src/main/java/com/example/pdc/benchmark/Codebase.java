@@ -0,0 +1,76 @@
+package com.example.pdc.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.example.pdc.ClassFile;
+import com.example.pdc.Dependency;
+import com.example.pdc.Package;
+import com.example.pdc.classfile.BytecodeClassFile;
+import com.example.pdc.dependency.ReferenceDependencies;
+import com.example.pdc.graph.DependencyGraph;
+import com.example.pdc.pkg.ClassFilePackages;
+
+/**
+ * The shared benchmark state: a {@link SyntheticCodebase} of the configured
+ * shape as a jar on disk, and the results of each analysis stage, so that
+ * every benchmark measures exactly one stage.
+ */
+@State(Scope.Benchmark)
+public class Codebase {
+	@Param({ "100", "1000", "10000" })
+	public int packages;
+
+	@Param({ "4" })
+	public int depth;
+
+	@Param({ "4" })
+	public int fanOut;
+
+	@Param({ "0.0", "0.05" })
+	public double cycleDensity;
+
+	@Param({ "5" })
+	public int classes;
+
+	@Param({ "42" })
+	public long seed;
+
+	Path jar;
+	Collection<ClassFile> classFiles;
+	Collection<Package> allPackages;
+	Collection<Dependency> dependencies;
+	DependencyGraph graph;
+
+	@Setup(Level.Trial)
+	public void generate() throws IOException {
+		final SyntheticCodebase codebase = new SyntheticCodebase(this.packages, this.depth, this.fanOut,
+				this.cycleDensity, this.classes, this.seed);
+		this.jar = Files.createTempFile("pdc-benchmark", ".jar");
+		codebase.write(this.jar);
+		final List<ClassFile> parsed = new ArrayList<>();
+		for (final byte[] bytes : codebase.classFiles().values()) {
+			parsed.add(new BytecodeClassFile(bytes));
+		}
+		this.classFiles = parsed;
+		this.allPackages = new ClassFilePackages(parsed).packages();
+		this.dependencies = new ReferenceDependencies(parsed, this.allPackages).dependencies();
+		this.graph = new DependencyGraph(this.dependencies);
+	}
+
+	@TearDown(Level.Trial)
+	public void delete() throws IOException {
+		Files.deleteIfExists(this.jar);
+	}
+}
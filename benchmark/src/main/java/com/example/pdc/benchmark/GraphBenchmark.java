@@ -0,0 +1,71 @@
+package com.example.pdc.benchmark;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.pdc.Package;
+import com.example.pdc.graph.ClassGraph;
+import com.example.pdc.graph.DependencyGraph;
+import com.example.pdc.graph.ElementaryCycles;
+import com.example.pdc.graph.NamespaceGraph;
+import com.example.pdc.graph.Reachability;
+import com.example.pdc.pkg.ClassFilePackages;
+
+/**
+ * Builds the packages and graphs from parsed class files, searches the
+ * dependency graph for cycles and computes its transitive closure.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphBenchmark {
+
+	@Benchmark
+	public Collection<Package> packages(Codebase codebase) {
+		return new ClassFilePackages(codebase.classFiles).packages();
+	}
+
+	@Benchmark
+	public DependencyGraph dependencyGraph(Codebase codebase) {
+		return new DependencyGraph(codebase.dependencies);
+	}
+
+	@Benchmark
+	public DependencyGraph classGraph(Codebase codebase) {
+		return new ClassGraph(codebase.classFiles).packages();
+	}
+
+	@Benchmark
+	public Collection<List<String>> findCycles(Codebase codebase) {
+		return codebase.graph.findCycles();
+	}
+
+	@Benchmark
+	public long elementaryCycles(Codebase codebase) {
+		final long[] count = { 0 };
+		new ElementaryCycles(codebase.graph, 8, 100_000, Duration.ofSeconds(1)).enumerate(cycle -> count[0]++);
+		return count[0];
+	}
+
+	@Benchmark
+	public Reachability reachability(Codebase codebase) {
+		return new Reachability(codebase.graph.compact());
+	}
+
+	@Benchmark
+	public NamespaceGraph namespaceGraph(Codebase codebase) {
+		return new NamespaceGraph(codebase.allPackages);
+	}
+}
@@ -0,0 +1,76 @@
+package com.example.pdc.benchmark;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.pdc.Rule;
+import com.example.pdc.Violation;
+import com.example.pdc.app.PDCApp;
+import com.example.pdc.rule.CyclicDependencyRule;
+import com.example.pdc.rule.LayeringRule;
+import com.example.pdc.rule.MissingPackageRule;
+import com.example.pdc.rule.SingularNamingRule;
+
+/**
+ * Applies each rule to the generated packages. Every invocation checks a new
+ * app, so building the shared package index is part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleBenchmark {
+	@Param({ "MissingPackageRule", "SingularNamingRule", "CyclicDependencyRule", "LayeringRule" })
+	public String rule;
+
+	private Rule applied;
+
+	@Setup(Level.Trial)
+	public void create() {
+		switch (this.rule) {
+		case "MissingPackageRule":
+			this.applied = new MissingPackageRule();
+			break;
+		case "SingularNamingRule":
+			this.applied = new SingularNamingRule();
+			break;
+		case "CyclicDependencyRule":
+			this.applied = new CyclicDependencyRule();
+			break;
+		case "LayeringRule":
+			// Literal, single and multi segment globs over the generated names.
+			this.applied = new LayeringRule(Arrays.asList(
+					"allow  gen.p0.**         -> gen.p0.**",
+					"forbid gen.p0.**         -> gen.**",
+					"allow  gen.*.**          -> gen.*.p0.**",
+					"forbid gen.*.*.p1.**     -> gen.*.*.p2.**",
+					"forbid **.p3             -> gen.p1.**"));
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown rule: " + this.rule);
+		}
+	}
+
+	@Benchmark
+	public Collection<Violation> check(Codebase codebase) throws IOException {
+		return this.applied.check(new PDCApp(codebase.allPackages, Collections.emptyList(), codebase.graph));
+	}
+}
@@ -0,0 +1,46 @@
+package com.example.pdc.benchmark;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.pdc.Archive;
+import com.example.pdc.Package;
+import com.example.pdc.app.PipelinedPDCApp;
+import com.example.pdc.archive.MappedArchive;
+import com.example.pdc.archive.ZipArchive;
+
+/**
+ * Scans the generated jar into packages: enumeration, inflating, parsing and
+ * indexing, without rules.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScanBenchmark {
+
+	@Benchmark
+	public Collection<Package> mapped(Codebase codebase) throws IOException {
+		try (Archive archive = new MappedArchive(codebase.jar.toFile())) {
+			return new PipelinedPDCApp(archive, Collections.emptyList()).packages();
+		}
+	}
+
+	@Benchmark
+	public Collection<Package> zip(Codebase codebase) throws IOException {
+		try (Archive archive = new ZipArchive(codebase.jar.toFile())) {
+			return new PipelinedPDCApp(archive, Collections.emptyList()).packages();
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package com.example.pdc.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A generated code base of configurable size and shape, written as class files
+ * without any bytecode library. The packages form a tree of the given depth
+ * below {@code gen}. Each package holds one interface {@code Api} and classes
+ * that implement it; each class refers to the {@code Api} of other packages
+ * through fields, so the package graph gets {@code fanOut} edges per package.
+ * Edges point from a package to a later one, except for a share of
+ * {@code cycleDensity} edges that point back and close cycles. The same seed
+ * gives the same code base.
+ */
+public final class SyntheticCodebase {
+	private static final int MAGIC = 0xCAFEBABE;
+	private static final int JAVA_8 = 52;
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_PRIVATE = 0x0002;
+	private static final int ACC_SUPER = 0x0020;
+	private static final int ACC_INTERFACE = 0x0200;
+	private static final int ACC_ABSTRACT = 0x0400;
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_CLASS = 7;
+	private static final String OBJECT = "java/lang/Object";
+
+	private final int packages;
+	private final int depth;
+	private final int fanOut;
+	private final double cycleDensity;
+	private final int classes;
+	private final long seed;
+
+	/**
+	 * Creates a SyntheticCodebase.
+	 *
+	 * @param packages     The number of packages.
+	 * @param depth        The depth of the namespace tree.
+	 * @param fanOut       The outgoing dependencies per package.
+	 * @param cycleDensity The share of dependencies that point backwards.
+	 * @param classes      The classes per package, including the interface.
+	 * @param seed         The seed of the random choices.
+	 */
+	public SyntheticCodebase(int packages, int depth, int fanOut, double cycleDensity, int classes, long seed) {
+		if (packages < 1 || depth < 1 || fanOut < 0 || classes < 1 || cycleDensity < 0 || cycleDensity > 1) {
+			throw new IllegalArgumentException(String.format(
+					"Invalid shape: packages=%d, depth=%d, fanOut=%d, cycleDensity=%s, classes=%d", packages, depth,
+					fanOut, cycleDensity, classes));
+		}
+		this.packages = packages;
+		this.depth = depth;
+		this.fanOut = fanOut;
+		this.cycleDensity = cycleDensity;
+		this.classes = classes;
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the package names, in internal form, in the order that forward
+	 * edges follow.
+	 */
+	public List<String> packageNames() {
+		// The smallest branching that fits all packages into the given depth.
+		int branching = 1;
+		while (this.capacity(branching) < this.packages) {
+			branching++;
+		}
+		final List<String> names = new ArrayList<>(this.packages);
+		for (int node = 1; node <= this.packages; node++) {
+			final List<String> segments = new ArrayList<>();
+			for (int current = node; current > 0; current = (current - 1) / branching) {
+				segments.add("p" + (current - 1) % branching);
+			}
+			segments.add("gen");
+			Collections.reverse(segments);
+			names.add(String.join("/", segments));
+		}
+		return names;
+	}
+
+	/**
+	 * Generates all class files.
+	 *
+	 * @return The class files by entry name, in a stable order.
+	 */
+	public Map<String, byte[]> classFiles() throws IOException {
+		final Random random = new Random(this.seed);
+		final List<String> names = this.packageNames();
+		final Map<String, byte[]> files = new LinkedHashMap<>();
+		for (int pkg = 0; pkg < names.size(); pkg++) {
+			final List<List<String>> fields = new ArrayList<>();
+			for (int cls = 1; cls < this.classes; cls++) {
+				fields.add(new ArrayList<>());
+			}
+			for (int edge = 0; edge < this.fanOut; edge++) {
+				final int target = this.target(pkg, random);
+				if (target >= 0 && !fields.isEmpty()) {
+					fields.get(edge % fields.size()).add(names.get(target) + "/Api");
+				}
+			}
+			final String api = names.get(pkg) + "/Api";
+			files.put(api + ".class", this.classFile(api, ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT,
+					Collections.emptyList(), Collections.emptyList()));
+			for (int cls = 1; cls < this.classes; cls++) {
+				final String impl = names.get(pkg) + "/Impl" + cls;
+				files.put(impl + ".class", this.classFile(impl, ACC_PUBLIC | ACC_SUPER, Collections.singletonList(api),
+						fields.get(cls - 1)));
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Writes all class files into a jar.
+	 *
+	 * @param jar The jar to write.
+	 */
+	public void write(Path jar) throws IOException {
+		try (OutputStream file = Files.newOutputStream(Objects.requireNonNull(jar));
+				ZipOutputStream out = new ZipOutputStream(file)) {
+			for (final Map.Entry<String, byte[]> entry : this.classFiles().entrySet()) {
+				out.putNextEntry(new ZipEntry(entry.getKey()));
+				out.write(entry.getValue());
+				out.closeEntry();
+			}
+		}
+	}
+
+	private int capacity(int branching) {
+		long nodes = 0;
+		long level = 1;
+		for (int d = 0; d < this.depth && nodes < this.packages; d++) {
+			level *= branching;
+			nodes += level;
+		}
+		return (int) Math.min(nodes, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Picks the target of an edge: a later package, or with probability
+	 * {@code cycleDensity} an earlier one. Returns -1 if there is none.
+	 */
+	private int target(int source, Random random) {
+		final boolean back = random.nextDouble() < this.cycleDensity;
+		if (back && source > 0) {
+			return random.nextInt(source);
+		}
+		if (source + 1 < this.packages) {
+			return source + 1 + random.nextInt(this.packages - source - 1);
+		}
+		return -1;
+	}
+
+	/**
+	 * Writes a minimal class file: the constant pool, the class header and one
+	 * private field per referenced type, without methods or attributes.
+	 */
+	private byte[] classFile(String name, int access, List<String> interfaces, List<String> fieldTypes)
+			throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		final int poolSize = 4 + 2 * interfaces.size() + 2 * fieldTypes.size();
+		out.writeInt(MAGIC);
+		out.writeShort(0);
+		out.writeShort(JAVA_8);
+		out.writeShort(poolSize + 1);
+		// #1 this, #3 super, then interfaces, then field names and descriptors.
+		this.classEntry(out, name, 1);
+		this.classEntry(out, OBJECT, 3);
+		int index = 5;
+		for (final String type : interfaces) {
+			this.classEntry(out, type, index);
+			index += 2;
+		}
+		for (int field = 0; field < fieldTypes.size(); field++) {
+			out.writeByte(CONSTANT_UTF8);
+			out.writeUTF("f" + field);
+			out.writeByte(CONSTANT_UTF8);
+			out.writeUTF("L" + fieldTypes.get(field) + ";");
+		}
+		out.writeShort(access);
+		out.writeShort(2);
+		out.writeShort(4);
+		out.writeShort(interfaces.size());
+		for (int i = 0; i < interfaces.size(); i++) {
+			out.writeShort(6 + 2 * i);
+		}
+		out.writeShort(fieldTypes.size());
+		for (int field = 0; field < fieldTypes.size(); field++) {
+			out.writeShort(ACC_PRIVATE);
+			out.writeShort(index + 2 * field);
+			out.writeShort(index + 2 * field + 1);
+			out.writeShort(0);
+		}
+		out.writeShort(0);
+		out.writeShort(0);
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Writes a UTF-8 entry at {@code index} and the class entry pointing to it
+	 * at {@code index + 1}.
+	 */
+	private void classEntry(DataOutputStream out, String name, int index) throws IOException {
+		out.writeByte(CONSTANT_UTF8);
+		out.writeUTF(name);
+		out.writeByte(CONSTANT_CLASS);
+		out.writeShort(index);
+	}
+}
@@ -17,9 +17,37 @@ public interface App {
 	 */
 	Violations check() throws IOException;
 
+	/**
+	 * Performs a package design check, reporting each violation to the given
+	 * violations as soon as it is found. The check may stop early once they are
+	 * {@link Violations#done() done}.
+	 *
+	 * @param violations The violations to report to.
+	 * @return The given violations.
+	 * @throws IOException If a file I/O error occurs.
+	 */
+	Violations check(Violations violations) throws IOException;
+
 	/**
 	 * 
 	 * @return A collection of all packages found
 	 */
 	Collection<Package> packages();
+
+	/**
+	 * Returns the index over all packages. It is built once and shared by all
+	 * rules of a check.
+	 *
+	 * @return The package index.
+	 */
+	PackageIndex index();
+
+	/**
+	 * Returns the dependency graph between packages, the one cycles are found
+	 * in. It is built once and shared by all rules of a check; its nodes may
+	 * include packages that are referred to but not analyzed.
+	 *
+	 * @return The package dependency graph.
+	 */
+	Graph dependencies();
 }
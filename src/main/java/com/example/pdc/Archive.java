@@ -0,0 +1,44 @@
+package com.example.pdc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * An abstraction for an archive (jar, war or directory) that holds the compiled
+ * codebase to check. Entries are handed out before their content is read, so
+ * that reading can happen later and on another thread.
+ */
+public interface Archive extends Closeable {
+
+	/**
+	 * Passes every entry of the archive to the consumer, in archive order. The
+	 * entries stay readable until the archive is closed.
+	 *
+	 * @param consumer The consumer of the entries.
+	 * @throws IOException If the archive cannot be read.
+	 */
+	void read(Consumer<Entry> consumer) throws IOException;
+
+	/**
+	 * A single file within an archive.
+	 */
+	interface Entry {
+
+		/**
+		 * The path of the entry within the archive (e.g., com/example/App.class).
+		 *
+		 * @return The entry name.
+		 */
+		String name();
+
+		/**
+		 * Reads (and inflates) the content of the entry. Safe to call from any
+		 * thread.
+		 *
+		 * @return The uncompressed bytes.
+		 * @throws IOException If the entry cannot be read.
+		 */
+		byte[] bytes() throws IOException;
+	}
+}
@@ -0,0 +1,59 @@
+package com.example.pdc;
+
+import java.util.Collection;
+
+/**
+ * An abstraction for a single compiled class as it is found in the analyzed
+ * codebase. It describes the class without loading it into the JVM.
+ */
+public interface ClassFile {
+
+	/**
+	 * The fully qualified name of the class (e.g., com.example.app.Main).
+	 *
+	 * @return The class name.
+	 */
+	String name();
+
+	/**
+	 * The simple name of the class (e.g., Main).
+	 *
+	 * @return The simple class name.
+	 */
+	String simpleName();
+
+	/**
+	 * The name of the package the class belongs to.
+	 *
+	 * @return The package name, empty for the default package.
+	 */
+	String packageName();
+
+	/**
+	 * Whether the class is an abstraction (interface or abstract class).
+	 *
+	 * @return True for interfaces and abstract classes.
+	 */
+	boolean isAbstraction();
+
+	/**
+	 * The fully qualified name of the super class.
+	 *
+	 * @return The super class name, empty if the class has none.
+	 */
+	String superName();
+
+	/**
+	 * The fully qualified names of the directly implemented interfaces.
+	 *
+	 * @return A collection of interface names.
+	 */
+	Collection<String> interfaces();
+
+	/**
+	 * The fully qualified names of all types this class refers to.
+	 *
+	 * @return A collection of referenced type names.
+	 */
+	Collection<String> references();
+}
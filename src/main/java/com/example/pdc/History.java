@@ -0,0 +1,46 @@
+package com.example.pdc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * An abstraction for the history of all checks. Each check of an artifact is
+ * recorded as a run with its packages, dependencies and violations, so that
+ * violations can be followed over time.
+ */
+public interface History extends Closeable {
+
+	/**
+	 * Records a run.
+	 *
+	 * @param artifact   The name of the checked artifact.
+	 * @param packages   All packages found.
+	 * @param violations All violations found.
+	 * @return The id of the run; later runs have higher ids.
+	 * @throws IOException If the run cannot be stored.
+	 */
+	long record(String artifact, Collection<Package> packages, Collection<Violation> violations)
+			throws IOException;
+
+	/**
+	 * Returns the violations at a location, e.g. a package, over all runs.
+	 *
+	 * @param location The location of the violations.
+	 * @return The violations by run id, the oldest run first.
+	 * @throws IOException If the history cannot be read.
+	 */
+	SortedMap<Long, List<Violation>> violations(String location) throws IOException;
+
+	/**
+	 * Returns the violations of the latest run of an artifact that were not
+	 * found in an earlier run of the same artifact.
+	 *
+	 * @param run The id of the earlier run.
+	 * @return The new violations.
+	 * @throws IOException If the history cannot be read.
+	 */
+	List<Violation> newSince(long run) throws IOException;
+}
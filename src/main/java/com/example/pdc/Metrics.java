@@ -0,0 +1,259 @@
+package com.example.pdc;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A final object that records where the checks spend their time and memory:
+ * calls, wall time and allocated bytes per phase, counts of what was checked
+ * and the violations found per priority. All values are totals since the
+ * object was created, so a scraper can compute rates from two readings. It is
+ * thread-safe.
+ * <p>
+ * The allocated bytes are those of the thread that ran the phase, where the
+ * JVM can measure them, and 0 otherwise.
+ */
+public final class Metrics {
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	private final Map<String, Phase> phases = new ConcurrentSkipListMap<>();
+	private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+	private final Map<Priority, LongAdder> violations;
+
+	public Metrics() {
+		final Map<Priority, LongAdder> perPriority = new EnumMap<>(Priority.class);
+		for (final Priority priority : Priority.values()) {
+			perPriority.put(priority, new LongAdder());
+		}
+		this.violations = Collections.unmodifiableMap(perPriority);
+	}
+
+	/**
+	 * Starts timing a phase on the current thread; the phase is recorded when
+	 * the timer is closed, whether it succeeded or not.
+	 *
+	 * @param phase The name of the phase.
+	 * @return The running timer.
+	 */
+	public Timer time(String phase) {
+		return new Timer(Objects.requireNonNull(phase));
+	}
+
+	/**
+	 * Runs a phase on the current thread and records it, whether it succeeded
+	 * or not.
+	 *
+	 * @param phase The name of the phase.
+	 * @param task  The work of the phase.
+	 * @return The result of the task.
+	 * @throws E If the task fails.
+	 */
+	public <T, E extends Exception> T time(String phase, Task<T, E> task) throws E {
+		final Timer timer = this.time(phase);
+		try {
+			return task.run();
+		} finally {
+			timer.close();
+		}
+	}
+
+	/**
+	 * Starts a phase that runs as many small tasks on several threads, which
+	 * is recorded once, as a single call, when it is closed.
+	 *
+	 * @param phase The name of the phase.
+	 * @return The running phase.
+	 */
+	public Tasks tasks(String phase) {
+		return new Tasks(Objects.requireNonNull(phase));
+	}
+
+	/**
+	 * Records one call of a phase.
+	 *
+	 * @param phase The name of the phase.
+	 * @param nanos The wall time of the call.
+	 * @param bytes The bytes allocated by the call.
+	 */
+	public void record(String phase, long nanos, long bytes) {
+		final Phase recorded = this.phases.computeIfAbsent(phase, name -> new Phase());
+		recorded.calls.increment();
+		recorded.nanos.add(nanos);
+		recorded.bytes.add(bytes);
+	}
+
+	/**
+	 * Adds to a counter, e.g. of entries, packages or edges.
+	 */
+	public void count(String name, long delta) {
+		this.counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+	}
+
+	/**
+	 * Counts a violation found.
+	 */
+	public void violation(Priority priority) {
+		this.violations.get(priority).increment();
+	}
+
+	/**
+	 * Returns the calls per phase, sorted by phase.
+	 */
+	public SortedMap<String, Long> calls() {
+		final SortedMap<String, Long> calls = new TreeMap<>();
+		this.phases.forEach((name, phase) -> calls.put(name, phase.calls.sum()));
+		return calls;
+	}
+
+	/**
+	 * Returns the wall time in nanoseconds per phase, sorted by phase.
+	 */
+	public SortedMap<String, Long> nanos() {
+		final SortedMap<String, Long> nanos = new TreeMap<>();
+		this.phases.forEach((name, phase) -> nanos.put(name, phase.nanos.sum()));
+		return nanos;
+	}
+
+	/**
+	 * Returns the allocated bytes per phase, sorted by phase.
+	 */
+	public SortedMap<String, Long> bytes() {
+		final SortedMap<String, Long> bytes = new TreeMap<>();
+		this.phases.forEach((name, phase) -> bytes.put(name, phase.bytes.sum()));
+		return bytes;
+	}
+
+	/**
+	 * Returns the counters, sorted by name.
+	 */
+	public SortedMap<String, Long> counters() {
+		final SortedMap<String, Long> counters = new TreeMap<>();
+		this.counters.forEach((name, counter) -> counters.put(name, counter.sum()));
+		return counters;
+	}
+
+	/**
+	 * Returns the violations found per priority, the most severe first.
+	 */
+	public Map<Priority, Long> violations() {
+		final Map<Priority, Long> violations = new EnumMap<>(Priority.class);
+		this.violations.forEach((priority, counter) -> violations.put(priority, counter.sum()));
+		return violations;
+	}
+
+	/**
+	 * Returns the bytes a thread has allocated so far, or 0 if the JVM cannot
+	 * tell.
+	 */
+	private long allocated(long thread) {
+		if (THREADS instanceof com.sun.management.ThreadMXBean) {
+			return Math.max(0, ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(thread));
+		}
+		return 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d phases, counters %s, violations %s", this.phases.size(), this.counters(),
+				this.violations());
+	}
+
+	/**
+	 * The totals of one phase.
+	 */
+	private static final class Phase {
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+	}
+
+	/**
+	 * The work of a phase, see {@link Metrics#time(String, Task)}.
+	 *
+	 * @param <T> The type of the result.
+	 * @param <E> The type of the failure.
+	 */
+	public interface Task<T, E extends Exception> {
+		T run() throws E;
+	}
+
+	/**
+	 * A running measurement of a phase on one thread.
+	 */
+	public final class Timer implements AutoCloseable {
+		private final String phase;
+		private final long thread;
+		private final long startBytes;
+		private final long startNanos;
+
+		private Timer(String phase) {
+			this.phase = phase;
+			this.thread = Thread.currentThread().getId();
+			this.startBytes = allocated(this.thread);
+			this.startNanos = System.nanoTime();
+		}
+
+		/**
+		 * Records the phase; to be called on the thread that started it.
+		 */
+		@Override
+		public void close() {
+			final long nanos = System.nanoTime() - this.startNanos;
+			record(this.phase, nanos, Math.max(0, allocated(this.thread) - this.startBytes));
+		}
+	}
+
+	/**
+	 * A running phase of many small tasks. The wall time is summed over the
+	 * tasks. The allocated bytes are read per thread, when it runs its first
+	 * task and once more when the phase is closed, so they include what the
+	 * threads allocate in between, e.g. for other work on a shared pool.
+	 */
+	public final class Tasks implements AutoCloseable {
+		private final String phase;
+		private final LongAdder nanos = new LongAdder();
+		private final Map<Long, Long> startBytes = new ConcurrentHashMap<>();
+
+		private Tasks(String phase) {
+			this.phase = phase;
+		}
+
+		/**
+		 * Runs a task of the phase on the current thread.
+		 *
+		 * @param task The task.
+		 * @return The result of the task.
+		 * @throws E If the task fails.
+		 */
+		public <T, E extends Exception> T time(Task<T, E> task) throws E {
+			this.startBytes.computeIfAbsent(Thread.currentThread().getId(), thread -> allocated(thread));
+			final long start = System.nanoTime();
+			try {
+				return task.run();
+			} finally {
+				this.nanos.add(System.nanoTime() - start);
+			}
+		}
+
+		/**
+		 * Records the phase; to be called once all its tasks are done.
+		 */
+		@Override
+		public void close() {
+			long bytes = 0;
+			for (final Map.Entry<Long, Long> thread : this.startBytes.entrySet()) {
+				bytes += Math.max(0, allocated(thread.getKey()) - thread.getValue());
+			}
+			record(this.phase, this.nanos.sum(), bytes);
+		}
+	}
+}
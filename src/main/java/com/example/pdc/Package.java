@@ -18,22 +18,24 @@ public interface Package {
 	/**
 	 * The classes contained within this package.
 	 *
-	 * @return A collection of classes.
+	 * @return A collection of class files.
 	 */
-	Collection<Class<?>> classes();
+	Collection<ClassFile> classes();
 
 	/**
 	 * The abstractions (interfaces, abstract classes) within this package.
 	 *
 	 * @return A collection of abstractions.
 	 */
-	Collection<Class<?>> abstractions();
+	Collection<ClassFile> abstractions();
 
 	/**
-	 * The classes that are implementations of the package's abstractions.
+	 * The concrete classes of this package that directly extend or implement
+	 * an abstraction, which may live in another package; abstract classes and
+	 * interfaces are not realizations.
 	 *
-	 * @param abstractionName The name of the abstraction.
+	 * @param abstractionName The fully qualified name of the abstraction.
 	 * @return A collection of implementing classes.
 	 */
-	Collection<Class<?>> realizations(String abstractionName);
+	Collection<ClassFile> realizations(String abstractionName);
 }
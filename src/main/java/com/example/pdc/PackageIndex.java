@@ -0,0 +1,164 @@
+package com.example.pdc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A final object that indexes all packages of a check, so rules share one view
+ * instead of each rescanning the packages: a hash lookup by name, a trie over
+ * the namespace segments and the abstractions of each package.
+ */
+public final class PackageIndex {
+	private final List<Package> packages;
+	private final Map<String, Package> byName;
+	private final Map<String, List<ClassFile>> abstractions;
+	private final Segment root;
+
+	/**
+	 * Builds the index in one pass over the packages.
+	 *
+	 * @param packages All packages of the check.
+	 */
+	public PackageIndex(Collection<Package> packages) {
+		this.packages = new ArrayList<>(Objects.requireNonNull(packages));
+		this.byName = new HashMap<>();
+		this.abstractions = new HashMap<>();
+		this.root = new Segment();
+		for (final Package pkg : this.packages) {
+			this.byName.put(pkg.name(), pkg);
+			this.abstractions.put(pkg.name(), Collections.unmodifiableList(new ArrayList<>(pkg.abstractions())));
+			Segment segment = this.root;
+			if (!pkg.name().isEmpty()) {
+				for (final String part : pkg.name().split("\\.")) {
+					segment = segment.children.computeIfAbsent(part, k -> new Segment());
+				}
+			}
+			segment.pkg = pkg;
+		}
+	}
+
+	private PackageIndex(List<Package> packages, Map<String, Package> byName,
+			Map<String, List<ClassFile>> abstractions, Segment root) {
+		this.packages = packages;
+		this.byName = byName;
+		this.abstractions = abstractions;
+		this.root = root;
+	}
+
+	/**
+	 * Returns an index that lists only some packages in {@link #packages()},
+	 * while all lookups still see every package. A rule that iterates over the
+	 * packages then only checks these, against the whole code base.
+	 *
+	 * @param focus The packages to list.
+	 * @return The focused index, sharing the lookups with this one.
+	 */
+	public PackageIndex focus(Collection<Package> focus) {
+		return new PackageIndex(new ArrayList<>(focus), this.byName, this.abstractions, this.root);
+	}
+
+	/**
+	 * Returns all packages of the check.
+	 */
+	public Collection<Package> packages() {
+		return Collections.unmodifiableList(this.packages);
+	}
+
+	/**
+	 * Whether a package of the given name exists, in O(1).
+	 */
+	public boolean contains(String name) {
+		return this.byName.containsKey(name);
+	}
+
+	/**
+	 * Finds a package by name, in O(1).
+	 */
+	public Optional<Package> find(String name) {
+		return Optional.ofNullable(this.byName.get(name));
+	}
+
+	/**
+	 * Returns the abstractions of a package.
+	 *
+	 * @param name The package name.
+	 * @return The abstractions, empty if there is no such package.
+	 */
+	public Collection<ClassFile> abstractions(String name) {
+		return this.abstractions.getOrDefault(name, Collections.emptyList());
+	}
+
+	/**
+	 * Returns the names of the namespaces directly below a namespace, whether or
+	 * not they are packages themselves.
+	 *
+	 * @param namespace The namespace, empty for the root.
+	 * @return The child namespaces, sorted.
+	 */
+	public Collection<String> children(String namespace) {
+		final Segment segment = this.segment(namespace);
+		if (segment == null) {
+			return Collections.emptyList();
+		}
+		final List<String> children = new ArrayList<>();
+		for (final String part : segment.children.keySet()) {
+			children.add(namespace.isEmpty() ? part : namespace + "." + part);
+		}
+		Collections.sort(children);
+		return children;
+	}
+
+	/**
+	 * Returns the package of a namespace and all packages below it, in time
+	 * proportional to the size of that subtree.
+	 *
+	 * @param namespace The namespace, empty for the root.
+	 * @return The packages within the namespace.
+	 */
+	public Collection<Package> within(String namespace) {
+		final Segment segment = this.segment(namespace);
+		if (segment == null) {
+			return Collections.emptyList();
+		}
+		final List<Package> within = new ArrayList<>();
+		final Deque<Segment> open = new ArrayDeque<>();
+		open.push(segment);
+		while (!open.isEmpty()) {
+			final Segment next = open.pop();
+			if (next.pkg != null) {
+				within.add(next.pkg);
+			}
+			next.children.values().forEach(open::push);
+		}
+		return within;
+	}
+
+	private Segment segment(String namespace) {
+		Segment segment = this.root;
+		if (!namespace.isEmpty()) {
+			for (final String part : namespace.split("\\.")) {
+				segment = segment.children.get(part);
+				if (segment == null) {
+					return null;
+				}
+			}
+		}
+		return segment;
+	}
+
+	/**
+	 * A node of the namespace trie.
+	 */
+	private static final class Segment {
+		private final Map<String, Segment> children = new HashMap<>();
+		private Package pkg;
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.pdc;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A final object that tracks how far a check has come: entries parsed,
+ * packages found and rules finished. The stages report to it, a view polls it.
+ * It is thread-safe.
+ */
+public final class Progress {
+	private final AtomicInteger entries = new AtomicInteger();
+	private final AtomicInteger packages = new AtomicInteger();
+	private final AtomicInteger rules = new AtomicInteger();
+	private final CountDownLatch read = new CountDownLatch(1);
+
+	public void entryParsed() {
+		this.entries.incrementAndGet();
+	}
+
+	public void packagesFound(int count) {
+		this.packages.set(count);
+	}
+
+	public void ruleFinished() {
+		this.rules.incrementAndGet();
+	}
+
+	/**
+	 * Marks the archive as completely read, whether it succeeded or not.
+	 */
+	public void archiveRead() {
+		this.read.countDown();
+	}
+
+	/**
+	 * Waits until the archive is completely read.
+	 *
+	 * @throws InterruptedException If interrupted while waiting.
+	 */
+	public void awaitArchiveRead() throws InterruptedException {
+		this.read.await();
+	}
+
+	public boolean isArchiveRead() {
+		return this.read.getCount() == 0;
+	}
+
+	public int entries() {
+		return this.entries.get();
+	}
+
+	public int packages() {
+		return this.packages.get();
+	}
+
+	public int rules() {
+		return this.rules.get();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d entries parsed, %d packages found, %d rules finished", this.entries(),
+				this.packages(), this.rules());
+	}
+}
@@ -3,49 +3,133 @@ package com.example.pdc;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
- * A final object that represents a collection of rule violations. It ensures
- * immutability and provides a sorted view.
+ * A final object that collects rule violations as they are found. Each
+ * violation goes into the bucket of its priority, so the sorted view is the
+ * buckets in order and needs no sorting. A consumer sees every accepted
+ * violation at once, which allows streaming output while a check still runs.
+ * With a limit, the violations stop being accepted after the given number of
+ * violations of a priority or a more severe one, so a badly broken code base
+ * does not fill the memory. It is thread-safe, so rules running concurrently
+ * can add to the same instance.
  */
 public final class Violations implements Iterable<Violation> {
 
-	private final List<Violation> violations;
+	private final Map<Priority, List<Violation>> buckets;
+	private final Consumer<Violation> consumer;
+	private final Priority limitPriority;
+	private final int limit;
+	private int limited;
+	private int size;
 
 	public Violations() {
-		this(new ArrayList<>());
+		this(violation -> {
+		});
 	}
 
 	public Violations(Collection<Violation> violations) {
-		this.violations = new ArrayList<>(Objects.requireNonNull(violations));
+		this();
+		this.addAll(Objects.requireNonNull(violations));
 	}
 
-	public void add(Violation violation) {
-		this.violations.add(Objects.requireNonNull(violation));
+	/**
+	 * Creates Violations that pass each accepted violation to a consumer.
+	 *
+	 * @param consumer Called with each violation, while holding the lock.
+	 */
+	public Violations(Consumer<Violation> consumer) {
+		this(consumer, Priority.LOW, Integer.MAX_VALUE);
 	}
 
-	public void addAll(Collection<Violation> newViolations) {
-		this.violations.addAll(Objects.requireNonNull(newViolations));
+	/**
+	 * Creates Violations that stop accepting violations once the limit is
+	 * reached, e.g. after 10 {@link Priority#CRITICAL} ones.
+	 *
+	 * @param consumer Called with each accepted violation, while holding the
+	 *                 lock.
+	 * @param priority The least severe priority that counts towards the limit.
+	 * @param limit    The number of counted violations to accept.
+	 */
+	public Violations(Consumer<Violation> consumer, Priority priority, int limit) {
+		if (limit < 1) {
+			throw new IllegalArgumentException("Limit must be positive: " + limit);
+		}
+		this.buckets = new EnumMap<>(Priority.class);
+		for (final Priority bucket : Priority.values()) {
+			this.buckets.put(bucket, new ArrayList<>());
+		}
+		this.consumer = Objects.requireNonNull(consumer);
+		this.limitPriority = Objects.requireNonNull(priority);
+		this.limit = limit;
 	}
 
-	public Collection<Violation> sorted() {
-		Collections.sort(this.violations);
-		return Collections.unmodifiableList(this.violations);
+	/**
+	 * Adds a violation, unless the limit was reached.
+	 */
+	public synchronized void add(Violation violation) {
+		Objects.requireNonNull(violation);
+		if (this.done()) {
+			return;
+		}
+		this.buckets.get(violation.priority()).add(violation);
+		this.size++;
+		if (violation.priority().compareTo(this.limitPriority) <= 0) {
+			this.limited++;
+		}
+		this.consumer.accept(violation);
 	}
 
+	public synchronized void addAll(Collection<Violation> newViolations) {
+		for (final Violation violation : Objects.requireNonNull(newViolations)) {
+			this.add(violation);
+		}
+	}
+
+	/**
+	 * Whether the limit was reached. Further violations are dropped, so checks
+	 * may stop early.
+	 */
+	public synchronized boolean done() {
+		return this.limited >= this.limit;
+	}
+
+	/**
+	 * Returns a snapshot of all violations, the most severe first. Violations of
+	 * the same priority keep the order in which they were added.
+	 */
+	public synchronized Collection<Violation> sorted() {
+		final List<Violation> sorted = new ArrayList<>(this.size);
+		this.buckets.values().forEach(sorted::addAll);
+		return Collections.unmodifiableList(sorted);
+	}
+
+	/**
+	 * Iterates over a snapshot in sorted order.
+	 */
 	@Override
 	public Iterator<Violation> iterator() {
-		return this.violations.iterator();
+		return this.sorted().iterator();
+	}
+
+	public synchronized boolean isEmpty() {
+		return this.size == 0;
 	}
 
-	public boolean isEmpty() {
-		return this.violations.isEmpty();
+	public synchronized int size() {
+		return this.size;
 	}
 
-	public int size() {
-		return this.violations.size();
+	/**
+	 * Returns the number of violations of a priority, in O(1).
+	 */
+	public synchronized int size(Priority priority) {
+		return this.buckets.get(priority).size();
 	}
 }
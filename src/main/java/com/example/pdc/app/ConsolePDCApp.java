@@ -7,8 +7,9 @@ import java.util.Collection;
 import java.util.Objects;
 
 import com.example.pdc.App;
+import com.example.pdc.Graph;
 import com.example.pdc.Package;
-import com.example.pdc.Violation;
+import com.example.pdc.PackageIndex;
 import com.example.pdc.Violations;
 
 /**
@@ -24,18 +25,30 @@ public final class ConsolePDCApp implements App {
 		this.out = new PrintStream(Objects.requireNonNull(outputStream));
 	}
 
+	/**
+	 * Prints each violation as soon as it is found and a summary at the end.
+	 */
 	@Override
 	public Violations check() throws IOException {
+		return this.check(new Violations(violation -> this.out.println(violation.toString())));
+	}
+
+	/**
+	 * Prints a summary at the end; the consumer of the given violations decides
+	 * what is printed while the check runs.
+	 */
+	@Override
+	public Violations check(Violations violations) throws IOException {
 		this.out.println("Starting Package Design Check...");
-		final Violations violations = this.origin.check();
+		this.origin.check(violations);
 
 		if (violations.isEmpty()) {
 			this.out.println("Check passed. No violations found.");
 		} else {
-			this.out.println("Found " + violations.size() + " violations:");
-			for (final Violation violation : violations.sorted()) {
-				this.out.println(violation.toString());
-			}
+			this.out.println("Found " + violations.size() + " violations.");
+		}
+		if (violations.done()) {
+			this.out.println("Stopped early, the violation limit was reached.");
 		}
 
 		this.out.println("PDC finished.");
@@ -44,7 +57,16 @@ public final class ConsolePDCApp implements App {
 
 	@Override
 	public Collection<Package> packages() {
-		// TODO Auto-generated method stub
-		return null;
+		return this.origin.packages();
+	}
+
+	@Override
+	public PackageIndex index() {
+		return this.origin.index();
+	}
+
+	@Override
+	public Graph dependencies() {
+		return this.origin.dependencies();
 	}
 }
@@ -1,27 +1,42 @@
 package com.example.pdc.app;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.ToIntBiFunction;
 
 import com.example.pdc.App;
+import com.example.pdc.Graph;
+import com.example.pdc.Metrics;
 import com.example.pdc.Package;
+import com.example.pdc.PackageIndex;
 import com.example.pdc.Priority;
 import com.example.pdc.Rule;
 import com.example.pdc.Violation;
 import com.example.pdc.Violations;
+import com.example.pdc.graph.ClassGraph;
 import com.example.pdc.graph.DependencyGraph;
 import com.example.pdc.rule.CycleSolutionGenerator;
+import com.example.pdc.rule.ParallelRule;
 
 /**
  * An object that represents the PDC application. It is the central domain
  * object of the application.
  */
 public final class PDCApp implements App {
+	private static final int CUTS = 10;
+	private static final int REFERENCES = 3;
+
 	private final Collection<Package> allPackages;
 	private final Collection<Rule> allRules;
 	private final DependencyGraph dependencyGraph;
+	private final ClassGraph classGraph;
+	private final Metrics metrics;
+	private final ParallelRule parallelRules;
+	private PackageIndex packageIndex;
 
 	/**
 	 * Creates a PDCApp. Manual dependency injection happens here.
@@ -31,34 +46,156 @@ public final class PDCApp implements App {
 	 * @param graph    The dependency graph.
 	 */
 	public PDCApp(Collection<Package> packages, Collection<Rule> rules, DependencyGraph graph) {
+		this(packages, rules, graph, null, new Metrics(), null);
+	}
+
+	/**
+	 * Creates a PDCApp on the class graph. The package dependencies are rolled
+	 * up from it, and cycles name the class references behind each of their
+	 * dependencies.
+	 *
+	 * @param packages All packages to be checked.
+	 * @param rules    All rules to be applied.
+	 * @param classes  The class graph.
+	 */
+	public PDCApp(Collection<Package> packages, Collection<Rule> rules, ClassGraph classes) {
+		this(packages, rules, classes, new Metrics());
+	}
+
+	/**
+	 * Creates a PDCApp on the class graph that records the cycle detection as
+	 * phase {@code cycles}.
+	 *
+	 * @param packages All packages to be checked.
+	 * @param rules    All rules to be applied.
+	 * @param classes  The class graph.
+	 * @param metrics  The metrics to record to.
+	 */
+	public PDCApp(Collection<Package> packages, Collection<Rule> rules, ClassGraph classes, Metrics metrics) {
+		this(packages, rules, classes.packages(), classes, metrics, null);
+	}
+
+	/**
+	 * Creates a PDCApp that applies all rules concurrently, each with its own
+	 * timeout. The violations of each rule are reported as soon as it is done;
+	 * a rule that fails or times out is reported as a violation.
+	 *
+	 * @param packages All packages to be checked.
+	 * @param rules    All rules to be applied.
+	 * @param graph    The dependency graph.
+	 * @param executor The executor that runs the rules.
+	 * @param timeout  The time each single rule may take.
+	 */
+	public PDCApp(Collection<Package> packages, Collection<Rule> rules, DependencyGraph graph, Executor executor,
+			Duration timeout) {
+		this(packages, rules, graph, null, new Metrics(), new ParallelRule(rules, executor, timeout));
+	}
+
+	/**
+	 * Creates a PDCApp on the class graph that applies all rules concurrently,
+	 * each with its own timeout, and records the cycle detection as phase
+	 * {@code cycles}. Cycles name the class references behind their
+	 * dependencies, as with a single thread.
+	 *
+	 * @param packages All packages to be checked.
+	 * @param rules    All rules to be applied.
+	 * @param classes  The class graph.
+	 * @param metrics  The metrics to record to.
+	 * @param executor The executor that runs the rules.
+	 * @param timeout  The time each single rule may take.
+	 */
+	public PDCApp(Collection<Package> packages, Collection<Rule> rules, ClassGraph classes, Metrics metrics,
+			Executor executor, Duration timeout) {
+		this(packages, rules, classes.packages(), classes, metrics, new ParallelRule(rules, executor, timeout));
+	}
+
+	private PDCApp(Collection<Package> packages, Collection<Rule> rules, DependencyGraph graph, ClassGraph classes,
+			Metrics metrics, ParallelRule parallel) {
 		this.allPackages = Objects.requireNonNull(packages);
 		this.allRules = Objects.requireNonNull(rules);
 		this.dependencyGraph = Objects.requireNonNull(graph);
+		this.classGraph = classes;
+		this.metrics = Objects.requireNonNull(metrics);
+		this.parallelRules = parallel;
 	}
 
 	@Override
 	public Violations check() throws IOException {
-		final Violations violations = new Violations();
-
-		// 1. Find critical cycle errors first (highest priority).
-		final Collection<java.util.List<String>> cycles = this.dependencyGraph.findCycles();
-		if (!cycles.isEmpty()) {
-			for (final java.util.List<String> cyclePath : cycles) {
-				violations.add(new Violation(String.join(" → ", cyclePath),
-						new CycleSolutionGenerator(cyclePath).getDescription(), Priority.CRITICAL));
-			}
+		return this.check(new Violations());
+	}
+
+	@Override
+	public Violations check(Violations violations) throws IOException {
+		// 1. Find critical cycle errors first (highest priority), one per strongly
+		// connected component.
+		if (this.cycles(violations)) {
 			// Abort further checks in case of critical errors.
 			return violations;
 		}
 
 		// 2. Apply all other rules.
+		if (this.parallelRules != null) {
+			return this.parallelRules.check(this, violations);
+		}
 		for (final Rule rule : this.allRules) {
+			if (violations.done()) {
+				break;
+			}
 			violations.addAll(rule.check(this));
 		}
 
 		return violations;
 	}
 
+	/**
+	 * Reports a violation per strongly connected component, recorded as phase
+	 * {@code cycles}.
+	 *
+	 * @return Whether there are cycles.
+	 */
+	private boolean cycles(Violations violations) {
+		return this.metrics.time("cycles", () -> this.reportCycles(violations));
+	}
+
+	private boolean reportCycles(Violations violations) {
+		final Collection<java.util.List<String>> components = this.dependencyGraph.findComponents();
+		for (final java.util.List<String> component : components) {
+			if (violations.done()) {
+				break;
+			}
+			final java.util.List<String> cyclePath = this.dependencyGraph.findCycle(component);
+			final ToIntBiFunction<String, String> weight = this.classGraph == null ? (source, target) -> 1
+					: this.classGraph::referenceCount;
+			final java.util.List<String[]> cuts = this.dependencyGraph.feedbackArcs(component, weight);
+			String description = new CycleSolutionGenerator(cyclePath, cuts, weight).getDescription();
+			if (component.size() > cyclePath.size() - 1) {
+				description += "\n  Alle Pakete im Zyklus: " + String.join(", ", component);
+			}
+			if (this.classGraph != null) {
+				description += this.references(cuts);
+			}
+			violations.add(new Violation(String.join(" → ", cyclePath), description, Priority.CRITICAL));
+		}
+		return !components.isEmpty();
+	}
+
+	/**
+	 * Describes the class references behind the first dependencies to be
+	 * removed, at most {@value #REFERENCES} per dependency.
+	 */
+	private String references(java.util.List<String[]> cuts) {
+		final StringBuilder description = new StringBuilder("\n  Verursacht durch:");
+		for (final String[] cut : cuts.subList(0, Math.min(CUTS, cuts.size()))) {
+			final java.util.List<String[]> pairs = this.classGraph.references(cut[0], cut[1]);
+			description.append("\n  ").append(cut[0]).append(" → ").append(cut[1]).append(" (").append(pairs.size())
+					.append(" Referenzen)");
+			for (final String[] pair : pairs.subList(0, Math.min(REFERENCES, pairs.size()))) {
+				description.append("\n    ").append(pair[0]).append(" → ").append(pair[1]);
+			}
+		}
+		return description.toString();
+	}
+
 	/**
 	 * Returns all packages of the application.
 	 */
@@ -66,4 +203,23 @@ public final class PDCApp implements App {
 	public Collection<Package> packages() {
 		return Collections.unmodifiableCollection(this.allPackages);
 	}
+
+	/**
+	 * Returns the index over all packages, building it on first use.
+	 */
+	@Override
+	public synchronized PackageIndex index() {
+		if (this.packageIndex == null) {
+			this.packageIndex = new PackageIndex(this.allPackages);
+		}
+		return this.packageIndex;
+	}
+
+	/**
+	 * Returns the dependency graph the cycles are found in.
+	 */
+	@Override
+	public Graph dependencies() {
+		return this.dependencyGraph;
+	}
 }
@@ -0,0 +1,373 @@
+package com.example.pdc.app;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+import com.example.pdc.App;
+import com.example.pdc.Archive;
+import com.example.pdc.ClassFile;
+import com.example.pdc.Graph;
+import com.example.pdc.Metrics;
+import com.example.pdc.Package;
+import com.example.pdc.PackageIndex;
+import com.example.pdc.Priority;
+import com.example.pdc.Progress;
+import com.example.pdc.Rule;
+import com.example.pdc.Violation;
+import com.example.pdc.Violations;
+import com.example.pdc.classfile.ClassFileCache;
+import com.example.pdc.graph.ClassGraph;
+import com.example.pdc.pkg.ClassFilePackages;
+
+/**
+ * The PDC application running on an archive as a pipeline of stages:
+ * <ol>
+ * <li>entry enumeration on the calling thread,</li>
+ * <li>inflate and parse of each class file on the pool,</li>
+ * <li>package indexing on the calling thread,</li>
+ * <li>class graph building and</li>
+ * <li>rule evaluation by a {@link PDCApp}, one rule after the other or, with
+ * an executor for the rules, concurrently.</li>
+ * </ol>
+ * The first three stages overlap: at most {@code capacity} entries are in
+ * flight between enumeration and indexing, parsed entries wait in a bounded
+ * queue. Pool tasks never block, so the pool can be shared between several
+ * analyses. The archive is scanned once; later checks reuse the result.
+ * <p>
+ * With a {@link ClassFileCache}, only class files whose bytes are not in the
+ * cache are parsed; packages and the graph are rebuilt from the summaries.
+ * <p>
+ * An entry that cannot be read as a class file is skipped; the check reports
+ * it as a high violation of its own, located at the entry, before the
+ * violations of the rules, as the results miss its dependencies.
+ * <p>
+ * The stages report entries parsed and packages found to a {@link Progress},
+ * and that the archive is read once the last entry has been enumerated, while
+ * the entries in flight are still being parsed.
+ * They record their phases in {@link Metrics}: {@code scan} for reading the
+ * archive including the overlapping parse, {@code parse} for the inflate and
+ * parse tasks on the pool, summed over the tasks and recorded once per scan,
+ * then {@code packages}, {@code graph} and, in the {@link PDCApp},
+ * {@code cycles}. The counters are
+ * {@code entries}, {@code invalid} entries skipped, {@code classes},
+ * {@code packages}, {@code references} between classes and {@code edges}
+ * between packages.
+ */
+public final class PipelinedPDCApp implements App {
+	private final Archive archive;
+	private final Collection<Rule> allRules;
+	private final Executor pool;
+	private final int capacity;
+	private final ClassFileCache cache;
+	private final Progress progress;
+	private final Metrics metrics;
+	private final Executor ruleExecutor;
+	private final Duration timeout;
+	private final List<Violation> skipped = new ArrayList<>();
+	private PDCApp scanned;
+
+	/**
+	 * Creates a PipelinedPDCApp that parses on the common fork/join pool.
+	 *
+	 * @param archive The archive to check; the caller closes it.
+	 * @param rules   All rules to be applied.
+	 */
+	public PipelinedPDCApp(Archive archive, Collection<Rule> rules) {
+		this(archive, rules, new ClassFileCache());
+	}
+
+	/**
+	 * Creates a PipelinedPDCApp that parses on the common fork/join pool and
+	 * only parses class files missing in the cache.
+	 *
+	 * @param archive The archive to check; the caller closes it.
+	 * @param rules   All rules to be applied.
+	 * @param cache   The cache of class file summaries.
+	 */
+	public PipelinedPDCApp(Archive archive, Collection<Rule> rules, ClassFileCache cache) {
+		this(archive, rules, ForkJoinPool.commonPool(), 4 * ForkJoinPool.getCommonPoolParallelism() + 4, cache);
+	}
+
+	/**
+	 * Creates a PipelinedPDCApp without class file cache.
+	 *
+	 * @param archive  The archive to check; the caller closes it.
+	 * @param rules    All rules to be applied.
+	 * @param pool     The pool that inflates and parses the class files.
+	 * @param capacity The maximum number of entries in flight.
+	 */
+	public PipelinedPDCApp(Archive archive, Collection<Rule> rules, Executor pool, int capacity) {
+		this(archive, rules, pool, capacity, new ClassFileCache());
+	}
+
+	/**
+	 * Creates a PipelinedPDCApp.
+	 *
+	 * @param archive  The archive to check; the caller closes it.
+	 * @param rules    All rules to be applied.
+	 * @param pool     The pool that inflates and parses the class files.
+	 * @param capacity The maximum number of entries in flight.
+	 * @param cache    The cache of class file summaries.
+	 */
+	public PipelinedPDCApp(Archive archive, Collection<Rule> rules, Executor pool, int capacity,
+			ClassFileCache cache) {
+		this(archive, rules, pool, capacity, cache, new Progress());
+	}
+
+	/**
+	 * Creates a PipelinedPDCApp that reports its progress.
+	 *
+	 * @param archive  The archive to check; the caller closes it.
+	 * @param rules    All rules to be applied.
+	 * @param pool     The pool that inflates and parses the class files.
+	 * @param capacity The maximum number of entries in flight.
+	 * @param cache    The cache of class file summaries.
+	 * @param progress The progress to report to.
+	 */
+	public PipelinedPDCApp(Archive archive, Collection<Rule> rules, Executor pool, int capacity,
+			ClassFileCache cache, Progress progress) {
+		this(archive, rules, pool, capacity, cache, progress, new Metrics());
+	}
+
+	/**
+	 * Creates a PipelinedPDCApp that reports its progress and records its
+	 * phases.
+	 *
+	 * @param archive  The archive to check; the caller closes it.
+	 * @param rules    All rules to be applied.
+	 * @param pool     The pool that inflates and parses the class files.
+	 * @param capacity The maximum number of entries in flight.
+	 * @param cache    The cache of class file summaries.
+	 * @param progress The progress to report to.
+	 * @param metrics  The metrics to record to.
+	 */
+	public PipelinedPDCApp(Archive archive, Collection<Rule> rules, Executor pool, int capacity,
+			ClassFileCache cache, Progress progress, Metrics metrics) {
+		this(archive, rules, pool, capacity, cache, progress, metrics, null, null);
+	}
+
+	/**
+	 * Creates a PipelinedPDCApp that applies the rules concurrently, each with
+	 * its own timeout, so a check takes as long as its slowest rule.
+	 *
+	 * @param archive  The archive to check; the caller closes it.
+	 * @param rules    All rules to be applied.
+	 * @param pool     The pool that inflates and parses the class files.
+	 * @param capacity The maximum number of entries in flight.
+	 * @param cache    The cache of class file summaries.
+	 * @param progress The progress to report to.
+	 * @param metrics  The metrics to record to.
+	 * @param executor The executor that runs the rules, or null to apply them
+	 *                 one after the other on the calling thread.
+	 * @param timeout  The time each single rule may take; ignored without
+	 *                 executor.
+	 */
+	public PipelinedPDCApp(Archive archive, Collection<Rule> rules, Executor pool, int capacity,
+			ClassFileCache cache, Progress progress, Metrics metrics, Executor executor, Duration timeout) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		this.archive = Objects.requireNonNull(archive);
+		this.allRules = Objects.requireNonNull(rules);
+		this.pool = Objects.requireNonNull(pool);
+		this.capacity = capacity;
+		this.cache = Objects.requireNonNull(cache);
+		this.progress = Objects.requireNonNull(progress);
+		this.metrics = Objects.requireNonNull(metrics);
+		this.ruleExecutor = executor;
+		this.timeout = executor == null ? null : Objects.requireNonNull(timeout);
+	}
+
+	@Override
+	public Violations check() throws IOException {
+		return this.check(new Violations());
+	}
+
+	@Override
+	public Violations check(Violations violations) throws IOException {
+		final PDCApp app = this.scan();
+		violations.addAll(this.skipped);
+		return app.check(violations);
+	}
+
+	/**
+	 * Returns all packages of the archive, scanning it if not done yet.
+	 */
+	@Override
+	public Collection<Package> packages() {
+		try {
+			return this.scan().packages();
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot scan archive", e);
+		}
+	}
+
+	/**
+	 * Returns the index over all packages of the archive, scanning it if not
+	 * done yet.
+	 */
+	@Override
+	public PackageIndex index() {
+		try {
+			return this.scan().index();
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot scan archive", e);
+		}
+	}
+
+	/**
+	 * Returns the package dependencies rolled up from the class graph of the
+	 * archive, scanning it if not done yet.
+	 */
+	@Override
+	public Graph dependencies() {
+		try {
+			return this.scan().dependencies();
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot scan archive", e);
+		}
+	}
+
+	/**
+	 * Runs the scanning stages once and keeps the resulting app.
+	 */
+	private synchronized PDCApp scan() throws IOException {
+		if (this.scanned == null) {
+			final Collection<ClassFile> classFiles = this.metrics.time("scan", this::parse);
+			this.cache.save();
+			this.metrics.count("classes", classFiles.size());
+			final Collection<Package> packages = this.metrics.time("packages",
+					() -> new ClassFilePackages(classFiles).packages());
+			this.progress.packagesFound(packages.size());
+			this.metrics.count("packages", packages.size());
+			final ClassGraph graph = this.metrics.time("graph", () -> {
+				final ClassGraph built = new ClassGraph(classFiles);
+				this.metrics.count("edges", built.packages().compact().edgeCount());
+				return built;
+			});
+			this.metrics.count("references", graph.edges().size());
+			this.scanned = this.ruleExecutor == null ? new PDCApp(packages, this.allRules, graph, this.metrics)
+					: new PDCApp(packages, this.allRules, graph, this.metrics, this.ruleExecutor, this.timeout);
+		}
+		return this.scanned;
+	}
+
+	/**
+	 * Enumerates the class entries, parses them on the pool and indexes the
+	 * results by class name as they arrive.
+	 *
+	 * @return The class files sorted by name.
+	 */
+	private Collection<ClassFile> parse() throws IOException {
+		final Semaphore permits = new Semaphore(this.capacity);
+		final BlockingQueue<Parsed> parsed = new ArrayBlockingQueue<>(this.capacity);
+		final Map<String, Parsed> index = new HashMap<>();
+		final int[] submitted = { 0 };
+		final int[] indexed = { 0 };
+		try (Metrics.Tasks parsing = this.metrics.tasks("parse")) {
+			try {
+				this.archive.read(entry -> {
+					if (this.isClassFile(entry.name())) {
+						try {
+							while (!permits.tryAcquire()) {
+								indexed[0] += this.index(parsed.take(), index, permits);
+							}
+						} catch (InterruptedException e) {
+							throw new StageFailure(e);
+						}
+						final int sequence = submitted[0]++;
+						this.pool.execute(() -> parsed.add(new Parsed(sequence, entry, this.cache, parsing)));
+					}
+				});
+			} finally {
+				// The archive is consumed, or cannot be read any further; only the
+				// entries in flight are left.
+				this.progress.archiveRead();
+			}
+			while (indexed[0] < submitted[0]) {
+				indexed[0] += this.index(parsed.take(), index, permits);
+			}
+		} catch (StageFailure | InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Analysis interrupted");
+		}
+		final List<ClassFile> classFiles = new ArrayList<>(index.size());
+		index.values().forEach(result -> classFiles.add(result.classFile));
+		classFiles.sort(Comparator.comparing(ClassFile::name));
+		return Collections.unmodifiableList(classFiles);
+	}
+
+	/**
+	 * Indexes a single parsed entry, or keeps it as skipped if it cannot be
+	 * read. Duplicate classes keep the entry that comes first in the archive,
+	 * regardless of which was parsed first.
+	 */
+	private int index(Parsed result, Map<String, Parsed> index, Semaphore permits) {
+		permits.release();
+		if (result.error == null) {
+			index.merge(result.classFile.name(), result,
+					(present, other) -> present.sequence < other.sequence ? present : other);
+		} else {
+			this.skipped.add(new Violation(result.name,
+					String.format("Class file cannot be read and was skipped: %s", result.error), Priority.HIGH));
+			this.metrics.count("invalid", 1);
+		}
+		this.progress.entryParsed();
+		this.metrics.count("entries", 1);
+		return 1;
+	}
+
+	private boolean isClassFile(String name) {
+		return name.endsWith(".class") && !name.endsWith("package-info.class")
+				&& !name.endsWith("module-info.class");
+	}
+
+	/**
+	 * The outcome of inflating and parsing a single entry on the pool.
+	 */
+	private static final class Parsed {
+		private final int sequence;
+		private final String name;
+		private final ClassFile classFile;
+		private final Exception error;
+
+		Parsed(int sequence, Archive.Entry entry, ClassFileCache cache, Metrics.Tasks parsing) {
+			ClassFile parsedFile = null;
+			Exception failure = null;
+			try {
+				parsedFile = parsing.time(() -> cache.classFile(entry.bytes()));
+			} catch (IOException | RuntimeException e) {
+				failure = e;
+			}
+			this.sequence = sequence;
+			this.name = entry.name();
+			this.classFile = parsedFile;
+			this.error = failure;
+		}
+	}
+
+	/**
+	 * Carries an interruption out of the entry consumer.
+	 */
+	private static final class StageFailure extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		StageFailure(Exception cause) {
+			super(cause);
+		}
+	}
+}
@@ -0,0 +1,303 @@
+package com.example.pdc.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import com.example.pdc.Archive;
+
+/**
+ * The central directory of a zip file that lies in a byte buffer, e.g. a memory
+ * mapping. All reads are absolute or on private duplicates of the buffer, so
+ * entries can be read from any thread. Nested jars are opened in place: stored
+ * ones as slices of the same buffer, deflated ones as a stream.
+ */
+final class CentralDirectory {
+	private static final int LOCAL_HEADER = 0x04034b50;
+	private static final int FILE_HEADER = 0x02014b50;
+	private static final int END = 0x06054b50;
+	private static final int ZIP64_END = 0x06064b50;
+	private static final int ZIP64_LOCATOR = 0x07064b50;
+	private static final int ZIP64_EXTRA = 0x0001;
+	private static final int STORED = 0;
+	private static final int DEFLATED = 8;
+	private static final long MAGIC = 0xFFFFFFFFL;
+
+	private final ByteBuffer zip;
+
+	CentralDirectory(ByteBuffer zip) {
+		this.zip = zip.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Passes every file entry to the consumer, expanding nested jars.
+	 *
+	 * @param prefix   The prefix for entry names, e.g. "WEB-INF/lib/a.jar!/".
+	 * @param consumer The consumer of the entries.
+	 * @throws IOException If the zip file is corrupt.
+	 */
+	void read(String prefix, Consumer<Archive.Entry> consumer) throws IOException {
+		try {
+			final int end = this.end();
+			long count = this.u2(end + 10);
+			long offset = this.u4(end + 16);
+			if (count == 0xFFFF || offset == MAGIC) {
+				final int locator = end - 20;
+				if (locator < 0 || this.zip.getInt(locator) != ZIP64_LOCATOR) {
+					throw new IOException("Missing zip64 end of central directory locator");
+				}
+				final int zip64End = this.position(this.zip.getLong(locator + 8));
+				if (this.zip.getInt(zip64End) != ZIP64_END) {
+					throw new IOException("Corrupt zip64 end of central directory");
+				}
+				count = this.zip.getLong(zip64End + 32);
+				offset = this.zip.getLong(zip64End + 48);
+			}
+			int pos = this.position(offset);
+			for (long i = 0; i < count; i++) {
+				pos = this.entry(pos, prefix, consumer);
+			}
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Truncated zip file", e);
+		}
+	}
+
+	/**
+	 * Reads the file header at the given position.
+	 *
+	 * @return The position of the next file header.
+	 */
+	private int entry(int pos, String prefix, Consumer<Archive.Entry> consumer) throws IOException {
+		if (this.zip.getInt(pos) != FILE_HEADER) {
+			throw new IOException("Corrupt central directory at offset " + pos);
+		}
+		final int method = this.u2(pos + 10);
+		long compressed = this.u4(pos + 20);
+		long uncompressed = this.u4(pos + 24);
+		final int nameLength = this.u2(pos + 28);
+		final int extraLength = this.u2(pos + 30);
+		final int commentLength = this.u2(pos + 32);
+		long local = this.u4(pos + 42);
+		final String name = prefix + this.string(pos + 46, nameLength);
+		// Sizes and offset that do not fit are moved to the zip64 extra field,
+		// in this order.
+		int extra = pos + 46 + nameLength;
+		final int extraEnd = extra + extraLength;
+		while (extra + 4 <= extraEnd) {
+			final int id = this.u2(extra);
+			final int size = this.u2(extra + 2);
+			if (id == ZIP64_EXTRA) {
+				int field = extra + 4;
+				if (uncompressed == MAGIC) {
+					uncompressed = this.zip.getLong(field);
+					field += 8;
+				}
+				if (compressed == MAGIC) {
+					compressed = this.zip.getLong(field);
+					field += 8;
+				}
+				if (local == MAGIC) {
+					local = this.zip.getLong(field);
+				}
+			}
+			extra += 4 + size;
+		}
+		if (!name.endsWith("/")) {
+			final Located entry = new Located(name, this.position(local), method, compressed, uncompressed);
+			if (name.endsWith(".jar")) {
+				entry.expand(consumer);
+			} else {
+				consumer.accept(entry);
+			}
+		}
+		return extraEnd + commentLength;
+	}
+
+	/**
+	 * Finds the end of central directory record, which is followed only by the
+	 * archive comment.
+	 */
+	private int end() throws IOException {
+		final int last = this.zip.limit() - 22;
+		for (int pos = last; pos >= 0 && pos >= last - 0xFFFF; pos--) {
+			if (this.zip.getInt(pos) == END) {
+				return pos;
+			}
+		}
+		throw new IOException("Not a zip file");
+	}
+
+	private int position(long offset) throws IOException {
+		if (offset < 0 || offset > this.zip.limit()) {
+			throw new IOException("Zip offset out of range: " + offset);
+		}
+		return (int) offset;
+	}
+
+	private int u2(int pos) {
+		return this.zip.getShort(pos) & 0xFFFF;
+	}
+
+	private long u4(int pos) {
+		return this.zip.getInt(pos) & MAGIC;
+	}
+
+	private String string(int pos, int length) {
+		final byte[] bytes = new byte[length];
+		this.slice(pos, length).get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private ByteBuffer slice(int pos, int length) {
+		final ByteBuffer slice = this.zip.duplicate();
+		slice.position(pos).limit(pos + length);
+		return slice.slice();
+	}
+
+	/**
+	 * An entry located in the central directory. Its local header is read only
+	 * when the entry is read.
+	 */
+	private final class Located implements Archive.Entry {
+		private final String name;
+		private final int local;
+		private final int method;
+		private final long compressed;
+		private final long uncompressed;
+
+		Located(String name, int local, int method, long compressed, long uncompressed) {
+			this.name = name;
+			this.local = local;
+			this.method = method;
+			this.compressed = compressed;
+			this.uncompressed = uncompressed;
+		}
+
+		@Override
+		public String name() {
+			return this.name;
+		}
+
+		@Override
+		public byte[] bytes() throws IOException {
+			if (this.uncompressed > Integer.MAX_VALUE - 8) {
+				throw new IOException("Entry too large: " + this.name);
+			}
+			final byte[] bytes = new byte[(int) this.uncompressed];
+			if (this.method == STORED) {
+				this.data().get(bytes);
+			} else if (this.method == DEFLATED) {
+				final Inflater inflater = new Inflater(true);
+				try {
+					inflater.setInput(this.data());
+					int count = 0;
+					while (count < bytes.length) {
+						final int inflated = inflater.inflate(bytes, count, bytes.length - count);
+						if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+							throw new IOException("Truncated entry: " + this.name);
+						}
+						count += inflated;
+					}
+				} catch (DataFormatException e) {
+					throw new IOException("Corrupt entry: " + this.name, e);
+				} finally {
+					inflater.end();
+				}
+			} else {
+				throw new IOException("Unsupported compression method " + this.method + ": " + this.name);
+			}
+			return bytes;
+		}
+
+		/**
+		 * Passes the entries of this nested jar to the consumer. A stored jar is
+		 * a slice of the same buffer and gets its own central directory; a
+		 * deflated jar is streamed once, each entry read as it passes.
+		 */
+		void expand(Consumer<Archive.Entry> consumer) throws IOException {
+			final String prefix = this.name + "!/";
+			if (this.method == STORED) {
+				new CentralDirectory(this.data()).read(prefix, consumer);
+			} else if (this.method == DEFLATED) {
+				try (ZipInputStream nested = new ZipInputStream(
+						new InflaterInputStream(new BufferInput(this.data()), new Inflater(true)))) {
+					for (ZipEntry entry = nested.getNextEntry(); entry != null; entry = nested.getNextEntry()) {
+						if (!entry.isDirectory()) {
+							consumer.accept(new Read(prefix + entry.getName(), nested.readAllBytes()));
+						}
+					}
+				}
+			} else {
+				consumer.accept(this);
+			}
+		}
+
+		private ByteBuffer data() throws IOException {
+			if (zip.getInt(this.local) != LOCAL_HEADER) {
+				throw new IOException("Corrupt local header: " + this.name);
+			}
+			final int start = this.local + 30 + u2(this.local + 26) + u2(this.local + 28);
+			if (this.compressed > zip.limit() - start) {
+				throw new IOException("Truncated entry: " + this.name);
+			}
+			return slice(start, (int) this.compressed);
+		}
+	}
+
+	/**
+	 * An entry whose bytes were already read from a stream.
+	 */
+	private static final class Read implements Archive.Entry {
+		private final String name;
+		private final byte[] bytes;
+
+		Read(String name, byte[] bytes) {
+			this.name = name;
+			this.bytes = bytes;
+		}
+
+		@Override
+		public String name() {
+			return this.name;
+		}
+
+		@Override
+		public byte[] bytes() {
+			return this.bytes;
+		}
+	}
+
+	/**
+	 * A stream over the remaining bytes of a buffer.
+	 */
+	private static final class BufferInput extends InputStream {
+		private final ByteBuffer buffer;
+
+		BufferInput(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			final int count = Math.min(length, this.buffer.remaining());
+			this.buffer.get(bytes, offset, count);
+			return count;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.pdc.archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.example.pdc.Archive;
+
+/**
+ * A directory that holds the compiled codebase, e.g. target/classes or an
+ * exploded war. Files are handed out in path order and read on demand. Jars
+ * within the directory (e.g. WEB-INF/lib/*.jar) are mapped and expanded in
+ * place, their entries named "lib/inner.jar!/inner/Entry.class".
+ */
+public final class DirectoryArchive implements Archive {
+	private final File directory;
+	private final List<Archive> jars;
+
+	public DirectoryArchive(File directory) {
+		this.directory = Objects.requireNonNull(directory);
+		this.jars = new ArrayList<>();
+	}
+
+	@Override
+	public void read(Consumer<Entry> consumer) throws IOException {
+		final Path root = this.directory.toPath();
+		final List<Path> files;
+		try (Stream<Path> walk = Files.walk(root)) {
+			files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		}
+		for (final Path file : files) {
+			final String name = root.relativize(file).toString().replace(File.separatorChar, '/');
+			if (name.endsWith(".jar")) {
+				this.jar(file).read(entry -> consumer.accept(new Entry() {
+					@Override
+					public String name() {
+						return name + "!/" + entry.name();
+					}
+
+					@Override
+					public byte[] bytes() throws IOException {
+						return entry.bytes();
+					}
+				}));
+			} else {
+				consumer.accept(new Entry() {
+					@Override
+					public String name() {
+						return name;
+					}
+
+					@Override
+					public byte[] bytes() throws IOException {
+						return Files.readAllBytes(file);
+					}
+				});
+			}
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		for (final Archive jar : this.jars) {
+			jar.close();
+		}
+		this.jars.clear();
+	}
+
+	private synchronized Archive jar(Path file) {
+		final Archive jar = new MappedArchive(file.toFile());
+		this.jars.add(jar);
+		return jar;
+	}
+}
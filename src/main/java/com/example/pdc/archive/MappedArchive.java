@@ -0,0 +1,51 @@
+package com.example.pdc.archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import com.example.pdc.Archive;
+
+/**
+ * A zip file (jar or war) that is memory-mapped instead of read. The central
+ * directory and all entries are read straight from the mapping, so the heap
+ * holds only the entries in flight. Nested jars (e.g. WEB-INF/lib/*.jar) are
+ * expanded in place, their entries named "outer.jar!/inner/Entry.class".
+ * <p>
+ * A single mapping is limited to 2 GB. The mapping itself is released by the
+ * garbage collector after the archive is closed.
+ */
+public final class MappedArchive implements Archive {
+	private final File file;
+	private ByteBuffer mapping;
+
+	public MappedArchive(File file) {
+		this.file = Objects.requireNonNull(file);
+	}
+
+	@Override
+	public void read(Consumer<Entry> consumer) throws IOException {
+		new CentralDirectory(this.map()).read("", consumer);
+	}
+
+	@Override
+	public synchronized void close() {
+		this.mapping = null;
+	}
+
+	private synchronized ByteBuffer map() throws IOException {
+		if (this.mapping == null) {
+			try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+				if (channel.size() > Integer.MAX_VALUE) {
+					throw new IOException("Archive larger than 2 GB: " + this.file);
+				}
+				this.mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+		}
+		return this.mapping;
+	}
+}
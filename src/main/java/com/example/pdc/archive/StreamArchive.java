@@ -0,0 +1,74 @@
+package com.example.pdc.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import com.example.pdc.Archive;
+
+/**
+ * A zip file (jar or war) read once from a stream, e.g. an upload, without
+ * writing it to disk first. Entries are found by their local headers as the
+ * stream passes; each entry is read into memory when it is handed out, so it
+ * stays readable after the stream moved on. Nested jars are kept in memory and
+ * expanded through their own central directory, their entries named
+ * "outer.jar!/inner/Entry.class".
+ * <p>
+ * Stored entries whose sizes follow in a data descriptor cannot be streamed;
+ * such archives fail with an IOException.
+ */
+public final class StreamArchive implements Archive {
+	private final InputStream input;
+	private boolean consumed;
+
+	/**
+	 * Creates a StreamArchive.
+	 *
+	 * @param input The stream of the zip file; closed with the archive.
+	 */
+	public StreamArchive(InputStream input) {
+		this.input = Objects.requireNonNull(input);
+	}
+
+	@Override
+	public void read(Consumer<Entry> consumer) throws IOException {
+		synchronized (this) {
+			if (this.consumed) {
+				throw new IOException("Stream archive can only be read once");
+			}
+			this.consumed = true;
+		}
+		final ZipInputStream zip = new ZipInputStream(this.input);
+		for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+			if (entry.isDirectory()) {
+				continue;
+			}
+			final String name = entry.getName();
+			final byte[] bytes = zip.readAllBytes();
+			if (name.endsWith(".jar")) {
+				new CentralDirectory(ByteBuffer.wrap(bytes)).read(name + "!/", consumer);
+			} else {
+				consumer.accept(new Entry() {
+					@Override
+					public String name() {
+						return name;
+					}
+
+					@Override
+					public byte[] bytes() {
+						return bytes;
+					}
+				});
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.input.close();
+	}
+}
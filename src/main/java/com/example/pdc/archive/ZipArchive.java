@@ -0,0 +1,65 @@
+package com.example.pdc.archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.example.pdc.Archive;
+
+/**
+ * A zip file (jar or war) on disk. The file is opened on the first read and
+ * stays open until the archive is closed, so entries can be inflated
+ * concurrently after they were handed out.
+ */
+public final class ZipArchive implements Archive {
+	private final File file;
+	private ZipFile zipFile;
+
+	public ZipArchive(File file) {
+		this.file = Objects.requireNonNull(file);
+	}
+
+	@Override
+	public void read(Consumer<Entry> consumer) throws IOException {
+		final ZipFile zip = this.open();
+		final Enumeration<? extends ZipEntry> entries = zip.entries();
+		while (entries.hasMoreElements()) {
+			final ZipEntry entry = entries.nextElement();
+			if (!entry.isDirectory()) {
+				consumer.accept(new Entry() {
+					@Override
+					public String name() {
+						return entry.getName();
+					}
+
+					@Override
+					public byte[] bytes() throws IOException {
+						try (InputStream input = zip.getInputStream(entry)) {
+							return input.readAllBytes();
+						}
+					}
+				});
+			}
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (this.zipFile != null) {
+			this.zipFile.close();
+			this.zipFile = null;
+		}
+	}
+
+	private synchronized ZipFile open() throws IOException {
+		if (this.zipFile == null) {
+			this.zipFile = new ZipFile(this.file);
+		}
+		return this.zipFile;
+	}
+}
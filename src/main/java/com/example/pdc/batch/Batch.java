@@ -0,0 +1,254 @@
+package com.example.pdc.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+import com.example.pdc.Archive;
+import com.example.pdc.Metrics;
+import com.example.pdc.Priority;
+import com.example.pdc.Progress;
+import com.example.pdc.Rule;
+import com.example.pdc.Violation;
+import com.example.pdc.Violations;
+import com.example.pdc.app.ConsolePDCApp;
+import com.example.pdc.app.PipelinedPDCApp;
+import com.example.pdc.archive.DirectoryArchive;
+import com.example.pdc.archive.MappedArchive;
+import com.example.pdc.classfile.ClassFileCache;
+
+/**
+ * A headless check of many artifacts (jars, wars or directories) at once.
+ * <p>
+ * All artifacts parse their class files on one shared pool of workers. At most
+ * {@code parallel} artifacts are in flight, and only as many as fit into the
+ * heap budget: each artifact reserves an estimate of its heap use before it
+ * starts, an artifact larger than the whole budget runs alone. Each artifact
+ * gets its own report file, the summary of all artifacts goes to the given
+ * stream and into {@code summary.txt}.
+ * <p>
+ * With a rule timeout, the rules of an artifact run concurrently on the shared
+ * pool, each with that timeout; otherwise one after the other.
+ */
+public final class Batch {
+	/**
+	 * Heap use of an analysis relative to the size of the artifact on disk.
+	 */
+	private static final int HEAP_PER_BYTE = 8;
+	private static final int KB = 1024;
+
+	private final List<File> artifacts;
+	private final Collection<Rule> rules;
+	private final Path reports;
+	private final int workers;
+	private final int parallel;
+	private final long heapBudget;
+	private final Priority failOn;
+	private final ClassFileCache cache;
+	private final Duration ruleTimeout;
+
+	/**
+	 * Creates a Batch with one worker per processor, half of the maximum heap
+	 * as budget and no class file cache, failing on high violations.
+	 *
+	 * @param artifacts The jars, wars or directories to check.
+	 * @param rules     All rules to be applied.
+	 * @param reports   The directory of the reports.
+	 */
+	public Batch(List<File> artifacts, Collection<Rule> rules, Path reports) {
+		this(artifacts, rules, reports, Runtime.getRuntime().availableProcessors(),
+				Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory() / 2, Priority.HIGH,
+				new ClassFileCache());
+	}
+
+	/**
+	 * Creates a Batch.
+	 *
+	 * @param artifacts  The jars, wars or directories to check.
+	 * @param rules      All rules to be applied.
+	 * @param reports    The directory of the reports.
+	 * @param workers    The size of the shared worker pool.
+	 * @param parallel   The maximum number of artifacts in flight.
+	 * @param heapBudget The heap in bytes that all artifacts in flight may use.
+	 * @param failOn     The least severe priority that fails the batch.
+	 * @param cache      The class file cache shared by all artifacts.
+	 */
+	public Batch(List<File> artifacts, Collection<Rule> rules, Path reports, int workers, int parallel,
+			long heapBudget, Priority failOn, ClassFileCache cache) {
+		this(artifacts, rules, reports, workers, parallel, heapBudget, failOn, cache, null);
+	}
+
+	/**
+	 * Creates a Batch that applies the rules of each artifact concurrently.
+	 *
+	 * @param artifacts   The jars, wars or directories to check.
+	 * @param rules       All rules to be applied.
+	 * @param reports     The directory of the reports.
+	 * @param workers     The size of the shared worker pool.
+	 * @param parallel    The maximum number of artifacts in flight.
+	 * @param heapBudget  The heap in bytes that all artifacts in flight may use.
+	 * @param failOn      The least severe priority that fails the batch.
+	 * @param cache       The class file cache shared by all artifacts.
+	 * @param ruleTimeout The time each single rule may take, or null to apply
+	 *                    the rules one after the other.
+	 */
+	public Batch(List<File> artifacts, Collection<Rule> rules, Path reports, int workers, int parallel,
+			long heapBudget, Priority failOn, ClassFileCache cache, Duration ruleTimeout) {
+		if (workers < 1 || parallel < 1 || heapBudget < KB) {
+			throw new IllegalArgumentException(String.format("Invalid limits: workers=%d, parallel=%d, heap=%d",
+					workers, parallel, heapBudget));
+		}
+		if (ruleTimeout != null && (ruleTimeout.isNegative() || ruleTimeout.isZero())) {
+			throw new IllegalArgumentException("Invalid rule timeout: " + ruleTimeout);
+		}
+		this.artifacts = Objects.requireNonNull(artifacts);
+		this.rules = Objects.requireNonNull(rules);
+		this.reports = Objects.requireNonNull(reports);
+		this.workers = workers;
+		this.parallel = parallel;
+		this.heapBudget = heapBudget;
+		this.failOn = Objects.requireNonNull(failOn);
+		this.cache = Objects.requireNonNull(cache);
+		this.ruleTimeout = ruleTimeout;
+	}
+
+	/**
+	 * Checks all artifacts and writes the reports.
+	 *
+	 * @param out The stream of the summary.
+	 * @return The exit code: 0 if all artifacts passed, 1 if an artifact has a
+	 *         violation of the failing priority or above, 2 if an artifact
+	 *         could not be checked.
+	 * @throws IOException If the reports cannot be written.
+	 */
+	public int run(PrintStream out) throws IOException {
+		Files.createDirectories(this.reports);
+		final int budget = (int) Math.min(this.heapBudget / KB, Integer.MAX_VALUE);
+		final Semaphore heap = new Semaphore(budget, true);
+		final ForkJoinPool pool = new ForkJoinPool(this.workers);
+		final ExecutorService drivers = Executors.newFixedThreadPool(this.parallel);
+		final List<Future<Result>> futures = new ArrayList<>();
+		try {
+			for (int index = 0; index < this.artifacts.size(); index++) {
+				final File artifact = this.artifacts.get(index);
+				final Path report = this.reports
+						.resolve(String.format("%03d-%s.txt", index + 1, artifact.getName()));
+				futures.add(drivers.submit(() -> this.check(artifact, report, pool, heap, budget)));
+			}
+			final List<Result> results = new ArrayList<>();
+			for (final Future<Result> future : futures) {
+				results.add(future.get());
+			}
+			return this.summarize(results, out);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Batch interrupted");
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			drivers.shutdownNow();
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Checks a single artifact once its heap estimate fits into the budget.
+	 */
+	private Result check(File artifact, Path report, ForkJoinPool pool, Semaphore heap, int budget)
+			throws InterruptedException {
+		final int estimate = (int) Math.min(Math.max(1, HEAP_PER_BYTE * this.size(artifact) / KB), budget);
+		heap.acquire(estimate);
+		try (OutputStream file = Files.newOutputStream(report);
+				Archive archive = artifact.isDirectory() ? new DirectoryArchive(artifact)
+						: new MappedArchive(artifact)) {
+			final Violations violations = new ConsolePDCApp(new PipelinedPDCApp(archive, this.rules, pool,
+					4 * this.workers + 4, this.cache, new Progress(), new Metrics(),
+					this.ruleTimeout == null ? null : pool, this.ruleTimeout), file).check();
+			return new Result(artifact, violations, null);
+		} catch (IOException | RuntimeException e) {
+			return new Result(artifact, new Violations(), e);
+		} finally {
+			heap.release(estimate);
+		}
+	}
+
+	private long size(File artifact) {
+		if (!artifact.isDirectory()) {
+			return artifact.length();
+		}
+		try (Stream<Path> walk = Files.walk(artifact.toPath())) {
+			return walk.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Writes one line per artifact and the totals, and derives the exit code.
+	 */
+	private int summarize(List<Result> results, PrintStream out) throws IOException {
+		final List<String> lines = new ArrayList<>();
+		final Map<Priority, Integer> totals = new EnumMap<>(Priority.class);
+		int failed = 0;
+		int broken = 0;
+		for (final Result result : results) {
+			if (result.error != null) {
+				broken++;
+				lines.add(String.format("ERROR %s: %s", result.artifact, result.error));
+				continue;
+			}
+			final boolean fails = result.counts.keySet().stream().anyMatch(p -> p.compareTo(this.failOn) <= 0);
+			if (fails) {
+				failed++;
+			}
+			result.counts.forEach((priority, count) -> totals.merge(priority, count, Integer::sum));
+			lines.add(String.format("%s %s: %s", fails ? "FAIL " : "PASS ", result.artifact, result.counts));
+		}
+		lines.add(String.format("%d artifacts, %d passed, %d failed, %d errors, violations: %s", results.size(),
+				results.size() - failed - broken, failed, broken, totals));
+		lines.forEach(out::println);
+		Files.write(this.reports.resolve("summary.txt"), lines, StandardCharsets.UTF_8);
+		if (broken > 0) {
+			return 2;
+		}
+		return failed > 0 ? 1 : 0;
+	}
+
+	/**
+	 * The outcome of a single artifact; only the counts are kept, the
+	 * violations are in the report.
+	 */
+	private static final class Result {
+		private final File artifact;
+		private final Map<Priority, Integer> counts;
+		private final Exception error;
+
+		Result(File artifact, Violations violations, Exception error) {
+			this.artifact = artifact;
+			this.counts = new EnumMap<>(Priority.class);
+			for (final Violation violation : violations) {
+				this.counts.merge(violation.priority(), 1, Integer::sum);
+			}
+			this.error = error;
+		}
+	}
+}
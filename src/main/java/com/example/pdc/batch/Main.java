@@ -0,0 +1,137 @@
+package com.example.pdc.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.example.pdc.Priority;
+import com.example.pdc.Rule;
+import com.example.pdc.classfile.ClassFileCache;
+import com.example.pdc.rule.LayeringRule;
+import com.example.pdc.rule.MemoizedRule;
+import com.example.pdc.rule.MemoizedRule.Scope;
+import com.example.pdc.rule.MissingPackageRule;
+import com.example.pdc.rule.RuleResults;
+import com.example.pdc.rule.SingularNamingRule;
+
+/**
+ * The command line entry of the {@link Batch}, for CI and nightly runs without
+ * an application server:
+ *
+ * <pre>
+ * java -cp pdc-classes.jar com.example.pdc.batch.Main [--workers N] [--parallel N]
+ *     [--heap-mb N] [--reports DIR] [--fail-on PRIORITY] [--cache DIR] [--layers FILE]
+ *     [--rule-timeout-ms N] ARTIFACT...
+ * </pre>
+ *
+ * With a cache directory, the results of the rules are memoized there as
+ * well, so repeated runs only check the packages that have changed. A layers
+ * file holds the policy of a {@link LayeringRule}. With a rule timeout, the
+ * rules of an artifact run concurrently, each with that timeout.
+ * <p>
+ * The exit code is that of {@link Batch#run(java.io.PrintStream)}, or 3 for
+ * invalid arguments.
+ */
+public final class Main {
+	private static final int USAGE = 3;
+	private static final String RULE_RESULTS = "rule-results.bin";
+
+	private final String[] args;
+
+	public Main(String... args) {
+		this.args = args.clone();
+	}
+
+	public static void main(String[] args) {
+		System.exit(new Main(args).exec());
+	}
+
+	/**
+	 * Parses the arguments and runs the batch.
+	 *
+	 * @return The exit code.
+	 */
+	public int exec() {
+		final Runtime runtime = Runtime.getRuntime();
+		int workers = runtime.availableProcessors();
+		int parallel = workers;
+		long heap = runtime.maxMemory() / 2;
+		Path reports = Paths.get("pdc-reports");
+		Priority failOn = Priority.HIGH;
+		ClassFileCache cache = new ClassFileCache();
+		RuleResults results = new RuleResults();
+		Path layers = null;
+		Duration ruleTimeout = null;
+		final List<File> artifacts = new ArrayList<>();
+		try {
+			for (int i = 0; i < this.args.length; i++) {
+				switch (this.args[i]) {
+				case "--workers":
+					workers = Integer.parseInt(this.args[++i]);
+					break;
+				case "--parallel":
+					parallel = Integer.parseInt(this.args[++i]);
+					break;
+				case "--heap-mb":
+					heap = Long.parseLong(this.args[++i]) * 1024 * 1024;
+					break;
+				case "--reports":
+					reports = Paths.get(this.args[++i]);
+					break;
+				case "--fail-on":
+					failOn = Priority.valueOf(this.args[++i].toUpperCase(Locale.ROOT));
+					break;
+				case "--cache":
+					final Path directory = Paths.get(this.args[++i]);
+					cache = new ClassFileCache(directory);
+					results = new RuleResults(directory.resolve(RULE_RESULTS));
+					break;
+				case "--layers":
+					layers = Paths.get(this.args[++i]);
+					break;
+				case "--rule-timeout-ms":
+					ruleTimeout = Duration.ofMillis(Long.parseLong(this.args[++i]));
+					break;
+				default:
+					final File artifact = new File(this.args[i]);
+					if (!artifact.exists()) {
+						throw new IllegalArgumentException("No such artifact: " + artifact);
+					}
+					artifacts.add(artifact);
+				}
+			}
+			if (artifacts.isEmpty()) {
+				throw new IllegalArgumentException("No artifacts given");
+			}
+			final List<Rule> rules = new ArrayList<>();
+			rules.add(new MemoizedRule(new SingularNamingRule(), SingularNamingRule.VERSION, Scope.PACKAGE,
+					results));
+			rules.add(new MemoizedRule(new MissingPackageRule(), MissingPackageRule.VERSION, Scope.SUBPACKAGES,
+					results));
+			if (layers != null) {
+				// Not memoized: the result of a package depends on which packages exist.
+				rules.add(new LayeringRule(Files.readAllLines(layers, StandardCharsets.UTF_8)));
+			}
+			final int code = new Batch(artifacts, rules, reports, workers, parallel, heap, failOn, cache,
+					ruleTimeout).run(System.out);
+			results.save();
+			return code;
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			System.err.println("Invalid arguments: " + e.getMessage());
+			System.err.println("Usage: [--workers N] [--parallel N] [--heap-mb N] [--reports DIR]"
+					+ " [--fail-on CRITICAL|HIGH|MEDIUM|LOW] [--cache DIR] [--layers FILE]"
+					+ " [--rule-timeout-ms N] ARTIFACT...");
+			return USAGE;
+		} catch (IOException e) {
+			System.err.println("Batch failed: " + e);
+			return 2;
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.example.pdc.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+
+import com.example.pdc.Priority;
+import com.example.pdc.Rule;
+import com.example.pdc.classfile.ClassFileCache;
+import com.example.pdc.rule.MissingPackageRule;
+import com.example.pdc.rule.SingularNamingRule;
+
+/**
+ * A scheduled {@link Batch} over the artifacts of a directory: every jar, war
+ * and subdirectory in it. Artifacts whose content is the same as in the last
+ * successful run are skipped; their SHA-256 fingerprints are kept in the
+ * reports directory. Each run that checks anything writes its reports into a
+ * directory named after its start time.
+ * <p>
+ * The job data holds the keys {@code directory}, {@code reports},
+ * {@code workers}, {@code concurrent} and optionally {@code cache}. A scan does
+ * not overlap with a scan of the same job. Half of the heap is shared by the
+ * scans that may run at once, {@code concurrent} of them.
+ */
+@DisallowConcurrentExecution
+public final class ScanJob implements Job {
+	private static final String FINGERPRINTS = "fingerprints.properties";
+	private static final DateTimeFormatter RUN = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+	@Override
+	public void execute(JobExecutionContext context) throws JobExecutionException {
+		final JobDataMap data = context.getMergedJobDataMap();
+		final Path directory = Paths.get(data.getString("directory"));
+		final Path reports = Paths.get(data.getString("reports"));
+		final int workers = Integer.parseInt(data.getString("workers"));
+		final int concurrent = Integer.parseInt(data.getString("concurrent"));
+		final String cache = data.getString("cache");
+		try {
+			Files.createDirectories(reports);
+			final Properties previous = this.fingerprints(reports);
+			final Properties current = new Properties();
+			final List<File> changed = new ArrayList<>();
+			for (final File artifact : this.artifacts(directory)) {
+				final String fingerprint = this.fingerprint(artifact.toPath());
+				current.setProperty(artifact.getName(), fingerprint);
+				if (!fingerprint.equals(previous.getProperty(artifact.getName()))) {
+					changed.add(artifact);
+				}
+			}
+			if (changed.isEmpty()) {
+				return;
+			}
+			final List<Rule> rules = Arrays.asList(new SingularNamingRule(), new MissingPackageRule());
+			final int exit = new Batch(changed, rules, reports.resolve(LocalDateTime.now().format(RUN)), workers,
+					workers, Runtime.getRuntime().maxMemory() / 2 / concurrent, Priority.HIGH,
+					cache == null ? new ClassFileCache() : new ClassFileCache(Paths.get(cache)))
+					.run(new PrintStream(OutputStream.nullOutputStream()));
+			// After a broken artifact, everything is checked again next time.
+			if (exit != 2) {
+				try (OutputStream out = Files.newOutputStream(reports.resolve(FINGERPRINTS))) {
+					current.store(out, "Fingerprints of the last scan of " + directory);
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			throw new JobExecutionException(e);
+		}
+	}
+
+	private List<File> artifacts(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> Files.isDirectory(path) || path.toString().endsWith(".jar")
+					|| path.toString().endsWith(".war")).sorted().map(Path::toFile).collect(Collectors.toList());
+		}
+	}
+
+	private Properties fingerprints(Path reports) throws IOException {
+		final Properties fingerprints = new Properties();
+		final Path file = reports.resolve(FINGERPRINTS);
+		if (Files.exists(file)) {
+			try (InputStream in = Files.newInputStream(file)) {
+				fingerprints.load(in);
+			}
+		}
+		return fingerprints;
+	}
+
+	/**
+	 * Hashes the content of a file, or the names and contents of all files in a
+	 * directory.
+	 */
+	private String fingerprint(Path artifact) throws IOException {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException("SHA-256 not available", e);
+		}
+		final List<Path> files;
+		try (Stream<Path> walk = Files.walk(artifact)) {
+			files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		}
+		final byte[] buffer = new byte[64 * 1024];
+		for (final Path file : files) {
+			digest.update(artifact.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+			try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+				while (in.read(buffer) >= 0) {
+					// The digest sees every byte read.
+				}
+			}
+		}
+		final StringBuilder hex = new StringBuilder();
+		for (final byte b : digest.digest()) {
+			hex.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+}
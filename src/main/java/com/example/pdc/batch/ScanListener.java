@@ -0,0 +1,47 @@
+package com.example.pdc.batch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+import org.quartz.SchedulerException;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+/**
+ * Starts the {@link ScanSchedule} with the application and stops it on
+ * undeploy. The schedule is read from the properties file named by the system
+ * property {@code pdc.scan.config}; without it, nothing is scheduled.
+ */
+@WebListener
+public final class ScanListener implements ServletContextListener {
+	private ScanSchedule schedule;
+
+	@Override
+	public synchronized void contextInitialized(ServletContextEvent event) {
+		final String file = System.getProperty("pdc.scan.config");
+		if (file == null) {
+			return;
+		}
+		final Properties config = new Properties();
+		try (InputStream in = Files.newInputStream(Paths.get(file))) {
+			config.load(in);
+			this.schedule = new ScanSchedule(config);
+			this.schedule.start();
+		} catch (IOException | SchedulerException e) {
+			throw new IllegalStateException("Cannot start scan schedule from " + file, e);
+		}
+	}
+
+	@Override
+	public synchronized void contextDestroyed(ServletContextEvent event) {
+		if (this.schedule != null) {
+			this.schedule.close();
+			this.schedule = null;
+		}
+	}
+}
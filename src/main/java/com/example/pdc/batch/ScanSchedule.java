@@ -0,0 +1,109 @@
+package com.example.pdc.batch;
+
+import java.io.Closeable;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Properties;
+
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.StdSchedulerFactory;
+
+/**
+ * The schedule of all {@link ScanJob}s, configured by properties:
+ *
+ * <pre>
+ * pdc.scan.concurrent=1                  scans running at once
+ * pdc.scan.workers=2                     parsing workers of each scan
+ * pdc.scan.reports=/var/pdc/reports      reports, one directory per scan
+ * pdc.scan.cache=/var/pdc/cache          class file cache, optional
+ * pdc.scan.NAME.directory=/srv/artifacts directory of the artifacts to scan
+ * pdc.scan.NAME.cron=0 0 2 * * ?         when to scan it, a Quartz cron expression
+ * </pre>
+ *
+ * Scans run on the low-priority threads of their own scheduler, never on the
+ * threads that serve requests. A scan that misses its time, e.g. because all
+ * threads are busy, waits for its next time.
+ */
+public final class ScanSchedule implements Closeable {
+	private static final String PREFIX = "pdc.scan.";
+	private static final String DIRECTORY = ".directory";
+	private static final String GROUP = "pdc-scans";
+
+	private final Properties config;
+	private Scheduler scheduler;
+
+	public ScanSchedule(Properties config) {
+		this.config = Objects.requireNonNull(config);
+	}
+
+	/**
+	 * Schedules all configured scans and starts the scheduler.
+	 *
+	 * @throws SchedulerException If the configuration is invalid.
+	 */
+	public synchronized void start() throws SchedulerException {
+		if (this.scheduler != null) {
+			return;
+		}
+		final String concurrent = this.config.getProperty(PREFIX + "concurrent", "1");
+		final Properties quartz = new Properties();
+		quartz.setProperty("org.quartz.scheduler.instanceName", GROUP);
+		quartz.setProperty("org.quartz.threadPool.threadCount", concurrent);
+		quartz.setProperty("org.quartz.threadPool.threadPriority", String.valueOf(Thread.MIN_PRIORITY));
+		quartz.setProperty("org.quartz.jobStore.class", "org.quartz.simpl.RAMJobStore");
+		quartz.setProperty("org.quartz.scheduler.skipUpdateCheck", "true");
+		final Scheduler created = new StdSchedulerFactory(quartz).getScheduler();
+		final String reports = this.required(PREFIX + "reports");
+		for (final String key : this.config.stringPropertyNames()) {
+			if (key.startsWith(PREFIX) && key.endsWith(DIRECTORY)) {
+				final String name = key.substring(PREFIX.length(), key.length() - DIRECTORY.length());
+				JobBuilder job = JobBuilder.newJob(ScanJob.class).withIdentity(name, GROUP)
+						.usingJobData("directory", this.config.getProperty(key))
+						.usingJobData("reports", Paths.get(reports, name).toString())
+						.usingJobData("workers", this.config.getProperty(PREFIX + "workers", "2"))
+						.usingJobData("concurrent", concurrent);
+				if (this.config.getProperty(PREFIX + "cache") != null) {
+					job = job.usingJobData("cache", this.config.getProperty(PREFIX + "cache"));
+				}
+				final JobDetail detail = job.build();
+				final Trigger trigger = TriggerBuilder.newTrigger().withIdentity(name, GROUP)
+						.withSchedule(CronScheduleBuilder.cronSchedule(this.required(PREFIX + name + ".cron"))
+								.withMisfireHandlingInstructionDoNothing())
+						.build();
+				created.scheduleJob(detail, trigger);
+			}
+		}
+		created.start();
+		this.scheduler = created;
+	}
+
+	/**
+	 * Stops the scheduler without waiting for running scans.
+	 */
+	@Override
+	public synchronized void close() {
+		if (this.scheduler != null) {
+			try {
+				this.scheduler.shutdown(false);
+			} catch (SchedulerException e) {
+				throw new IllegalStateException("Cannot stop scan schedule", e);
+			} finally {
+				this.scheduler = null;
+			}
+		}
+	}
+
+	private String required(String key) throws SchedulerException {
+		final String value = this.config.getProperty(key);
+		if (value == null) {
+			throw new SchedulerException("Missing scan property: " + key);
+		}
+		return value;
+	}
+}
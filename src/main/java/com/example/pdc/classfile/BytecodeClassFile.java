@@ -0,0 +1,130 @@
+package com.example.pdc.classfile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.example.pdc.ClassFile;
+
+/**
+ * An immutable class file read straight from its bytecode. The constant pool,
+ * access flags, super class, interfaces and all referenced types are parsed
+ * without loading the class, so no static initializer runs and no classpath is
+ * needed.
+ */
+public final class BytecodeClassFile implements ClassFile {
+	private static final int ACC_INTERFACE = 0x0200;
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	private final String name;
+	private final int access;
+	private final String superName;
+	private final List<String> interfaces;
+	private final Set<String> references;
+
+	/**
+	 * Parses a class file.
+	 *
+	 * @param bytes The raw bytes of a .class entry.
+	 * @throws IOException If the bytes are not a valid class file.
+	 */
+	public BytecodeClassFile(byte[] bytes) throws IOException {
+		try {
+			final ConstantPool pool = new ConstantPool(Objects.requireNonNull(bytes));
+			int pos = pool.end();
+			this.access = pool.u2(pos);
+			this.name = pool.className(pool.u2(pos + 2));
+			this.superName = pool.className(pool.u2(pos + 4));
+			final int interfaceCount = pool.u2(pos + 6);
+			pos += 8;
+			final List<String> names = new ArrayList<>(interfaceCount);
+			for (int i = 0; i < interfaceCount; i++, pos += 2) {
+				names.add(pool.className(pool.u2(pos)));
+			}
+			this.interfaces = Collections.unmodifiableList(names);
+			final Set<String> types = new HashSet<>();
+			pool.types(types);
+			// Fields and methods are laid out identically; their descriptors are
+			// the only type references that are not already in the pool.
+			for (int member = 0; member < 2; member++) {
+				final int count = pool.u2(pos);
+				pos += 2;
+				for (int i = 0; i < count; i++) {
+					pool.descriptor(pool.utf8(pool.u2(pos + 4)), types);
+					final int attributes = pool.u2(pos + 6);
+					pos += 8;
+					for (int a = 0; a < attributes; a++) {
+						pos += 6 + pool.u4(pos + 2);
+					}
+				}
+			}
+			types.remove(this.name);
+			this.references = Collections.unmodifiableSet(types);
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Truncated class file", e);
+		}
+	}
+
+	@Override
+	public String name() {
+		return this.name;
+	}
+
+	@Override
+	public String simpleName() {
+		return this.name.substring(Math.max(this.name.lastIndexOf('.'), this.name.lastIndexOf('$')) + 1);
+	}
+
+	@Override
+	public String packageName() {
+		final int dot = this.name.lastIndexOf('.');
+		return dot < 0 ? "" : this.name.substring(0, dot);
+	}
+
+	@Override
+	public boolean isAbstraction() {
+		return (this.access & (ACC_INTERFACE | ACC_ABSTRACT)) != 0;
+	}
+
+	@Override
+	public String superName() {
+		return this.superName;
+	}
+
+	@Override
+	public Collection<String> interfaces() {
+		return this.interfaces;
+	}
+
+	@Override
+	public Collection<String> references() {
+		return this.references;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		BytecodeClassFile that = (BytecodeClassFile) o;
+		return name.equals(that.name);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(name);
+	}
+
+	@Override
+	public String toString() {
+		return this.name;
+	}
+}
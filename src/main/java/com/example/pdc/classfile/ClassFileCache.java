@@ -0,0 +1,223 @@
+package com.example.pdc.classfile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.pdc.ClassFile;
+
+/**
+ * An on-disk cache of class file summaries, keyed by the SHA-256 hash of the
+ * class file bytes. A class file whose bytes were seen before is not parsed
+ * again; its summary is returned instead. All summaries are {@link ClassInfo}s
+ * on the {@link ClassNames} of the cache, so the type names are kept once per
+ * cache rather than once per class.
+ * <p>
+ * The cache directory holds immutable pack files. Each {@link #save()} writes
+ * the summaries added since loading as a new pack, which is moved into place
+ * atomically, so several analyses (or processes) can share a directory without
+ * locking. When there are too many packs, the summaries of this cache are
+ * written as one pack that replaces the packs it has loaded or written; packs
+ * that other caches wrote meanwhile are kept. Delete the directory to reset
+ * the cache.
+ * <p>
+ * A cache without directory parses every class file and keeps nothing.
+ */
+public final class ClassFileCache {
+	private static final int MAGIC = 0x50444331;
+	private static final int MAX_PACKS = 16;
+	private static final String PACK_PREFIX = "pack-";
+	private static final String PACK_SUFFIX = ".bin";
+
+	private final Path directory;
+	private final ClassNames names;
+	private final Map<String, ClassFile> summaries;
+	private final Map<String, ClassFile> added;
+	private final List<Path> known = new ArrayList<>();
+	private volatile boolean loaded;
+
+	/**
+	 * Creates a cache that caches nothing.
+	 */
+	public ClassFileCache() {
+		this.directory = null;
+		this.names = new ClassNames();
+		this.summaries = new ConcurrentHashMap<>();
+		this.added = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Creates a cache on a directory, which is created if missing.
+	 *
+	 * @param directory The cache directory.
+	 */
+	public ClassFileCache(Path directory) {
+		this.directory = Objects.requireNonNull(directory);
+		this.names = new ClassNames();
+		this.summaries = new ConcurrentHashMap<>();
+		this.added = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Returns the summary of a class file, parsing it only if its bytes are not
+	 * in the cache. Safe to call from several threads.
+	 *
+	 * @param bytes The raw bytes of a .class entry.
+	 * @return The class file.
+	 * @throws IOException If the bytes are not a valid class file.
+	 */
+	public ClassFile classFile(byte[] bytes) throws IOException {
+		if (this.directory == null) {
+			return new ClassInfo(new BytecodeClassFile(bytes), this.names);
+		}
+		if (!this.loaded) {
+			this.load();
+		}
+		final String hash = this.hash(bytes);
+		ClassFile summary = this.summaries.get(hash);
+		if (summary == null) {
+			summary = new ClassInfo(new BytecodeClassFile(bytes), this.names);
+			this.summaries.put(hash, summary);
+			this.added.put(hash, summary);
+		}
+		return summary;
+	}
+
+	/**
+	 * Writes the summaries added since the cache was loaded as a new pack.
+	 *
+	 * @throws IOException If the pack cannot be written.
+	 */
+	public synchronized void save() throws IOException {
+		if (this.directory == null || this.added.isEmpty()) {
+			return;
+		}
+		final List<Path> packs = this.packs();
+		if (packs.size() + 1 > MAX_PACKS) {
+			final Path merged = this.write(this.summaries);
+			for (final Path pack : this.known) {
+				Files.deleteIfExists(pack);
+			}
+			this.known.clear();
+			this.known.add(merged);
+		} else {
+			this.known.add(this.write(this.added));
+		}
+		this.added.clear();
+	}
+
+	private synchronized void load() throws IOException {
+		if (this.loaded) {
+			return;
+		}
+		Files.createDirectories(this.directory);
+		for (final Path pack : this.packs()) {
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(pack)))) {
+				if (in.readInt() != MAGIC) {
+					continue;
+				}
+				final int count = in.readInt();
+				for (int i = 0; i < count; i++) {
+					final String hash = in.readUTF();
+					this.summaries.put(hash, this.read(in));
+				}
+				this.known.add(pack);
+			} catch (IOException e) {
+				// A pack that vanished or is corrupt only costs cache hits.
+			}
+		}
+		this.loaded = true;
+	}
+
+	private ClassFile read(DataInputStream in) throws IOException {
+		final String name = in.readUTF();
+		final boolean abstraction = in.readBoolean();
+		final String superName = in.readUTF();
+		final int interfaceCount = in.readInt();
+		final List<String> interfaces = new ArrayList<>(interfaceCount);
+		for (int i = 0; i < interfaceCount; i++) {
+			interfaces.add(in.readUTF());
+		}
+		final int referenceCount = in.readInt();
+		final List<String> references = new ArrayList<>(referenceCount);
+		for (int i = 0; i < referenceCount; i++) {
+			references.add(in.readUTF());
+		}
+		return new ClassInfo(name, abstraction, superName, interfaces, references, this.names);
+	}
+
+	/**
+	 * Writes summaries as a new pack.
+	 *
+	 * @return The path of the pack.
+	 */
+	private Path write(Map<String, ClassFile> entries) throws IOException {
+		final Path temp = this.directory.resolve(UUID.randomUUID() + ".tmp");
+		try (OutputStream file = Files.newOutputStream(temp);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+			out.writeInt(MAGIC);
+			final List<Map.Entry<String, ClassFile>> snapshot = new ArrayList<>(entries.entrySet());
+			out.writeInt(snapshot.size());
+			for (final Map.Entry<String, ClassFile> entry : snapshot) {
+				final ClassFile classFile = entry.getValue();
+				out.writeUTF(entry.getKey());
+				out.writeUTF(classFile.name());
+				out.writeBoolean(classFile.isAbstraction());
+				out.writeUTF(classFile.superName());
+				out.writeInt(classFile.interfaces().size());
+				for (final String name : classFile.interfaces()) {
+					out.writeUTF(name);
+				}
+				out.writeInt(classFile.references().size());
+				for (final String name : classFile.references()) {
+					out.writeUTF(name);
+				}
+			}
+		} catch (IOException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+		final Path pack = this.directory.resolve(PACK_PREFIX + System.currentTimeMillis() + "-" + UUID.randomUUID()
+				+ PACK_SUFFIX);
+		Files.move(temp, pack, StandardCopyOption.ATOMIC_MOVE);
+		return pack;
+	}
+
+	private List<Path> packs() throws IOException {
+		final List<Path> packs = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory,
+				PACK_PREFIX + "*" + PACK_SUFFIX)) {
+			files.forEach(packs::add);
+		}
+		packs.sort(null);
+		return packs;
+	}
+
+	private String hash(byte[] bytes) throws IOException {
+		try {
+			final byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+			final StringBuilder hex = new StringBuilder(2 * digest.length);
+			for (final byte b : digest) {
+				hex.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException("SHA-256 not available", e);
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.example.pdc.classfile;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import com.example.pdc.ClassFile;
+
+/**
+ * A compact, immutable descriptor of a class file: the number of its name in
+ * the {@link ClassNames} of the analysis, its flags, and the numbers of its
+ * super class, interfaces and referenced types. The names are shared by all
+ * descriptors of an analysis, so a descriptor holds no strings of its own and
+ * a reference costs four bytes.
+ * <p>
+ * The referenced types are ordered by number, which is the order in which the
+ * analysis first saw them.
+ */
+public final class ClassInfo implements ClassFile {
+	private static final int ABSTRACTION = 1;
+
+	private final ClassNames names;
+	private final int id;
+	private final int flags;
+	private final int superName;
+	private final int[] interfaces;
+	private final int[] references;
+
+	/**
+	 * Describes another class file.
+	 *
+	 * @param origin The class file to describe.
+	 * @param names  The names of the analysis.
+	 */
+	public ClassInfo(ClassFile origin, ClassNames names) {
+		this(origin.name(), origin.isAbstraction(), origin.superName(), origin.interfaces(), origin.references(),
+				names);
+	}
+
+	/**
+	 * Creates a ClassInfo.
+	 *
+	 * @param name        The fully qualified name of the class.
+	 * @param abstraction Whether the class is an interface or abstract class.
+	 * @param superName   The name of the super class, empty if there is none.
+	 * @param interfaces  The names of the directly implemented interfaces.
+	 * @param references  The names of all referenced types.
+	 * @param names       The names of the analysis.
+	 */
+	public ClassInfo(String name, boolean abstraction, String superName, Collection<String> interfaces,
+			Collection<String> references, ClassNames names) {
+		this.names = Objects.requireNonNull(names);
+		this.id = names.id(Objects.requireNonNull(name));
+		this.flags = abstraction ? ABSTRACTION : 0;
+		this.superName = names.id(Objects.requireNonNull(superName));
+		this.interfaces = this.ids(interfaces);
+		final int[] referenced = this.ids(references);
+		Arrays.sort(referenced);
+		int size = 0;
+		for (int i = 0; i < referenced.length; i++) {
+			if ((i == 0 || referenced[i] != referenced[i - 1]) && referenced[i] != this.id) {
+				referenced[size++] = referenced[i];
+			}
+		}
+		this.references = size == referenced.length ? referenced : Arrays.copyOf(referenced, size);
+	}
+
+	/**
+	 * The number of the class name in the names of the analysis.
+	 */
+	public int id() {
+		return this.id;
+	}
+
+	@Override
+	public String name() {
+		return this.names.name(this.id);
+	}
+
+	@Override
+	public String simpleName() {
+		final String name = this.name();
+		return name.substring(Math.max(name.lastIndexOf('.'), name.lastIndexOf('$')) + 1);
+	}
+
+	@Override
+	public String packageName() {
+		final String name = this.name();
+		final int dot = name.lastIndexOf('.');
+		return dot < 0 ? "" : name.substring(0, dot);
+	}
+
+	@Override
+	public boolean isAbstraction() {
+		return (this.flags & ABSTRACTION) != 0;
+	}
+
+	@Override
+	public String superName() {
+		return this.names.name(this.superName);
+	}
+
+	@Override
+	public Collection<String> interfaces() {
+		return new Names(this.interfaces);
+	}
+
+	@Override
+	public Collection<String> references() {
+		return new Names(this.references);
+	}
+
+	private int[] ids(Collection<String> types) {
+		final int[] ids = new int[types.size()];
+		int i = 0;
+		for (final String type : types) {
+			ids[i++] = this.names.id(Objects.requireNonNull(type));
+		}
+		return ids;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		ClassInfo that = (ClassInfo) o;
+		return name().equals(that.name());
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(name());
+	}
+
+	@Override
+	public String toString() {
+		return this.name();
+	}
+
+	/**
+	 * A read-only view of numbered names.
+	 */
+	private final class Names extends AbstractList<String> implements RandomAccess {
+		private final int[] ids;
+
+		Names(int[] ids) {
+			this.ids = ids;
+		}
+
+		@Override
+		public String get(int index) {
+			return names.name(this.ids[index]);
+		}
+
+		@Override
+		public int size() {
+			return this.ids.length;
+		}
+	}
+}
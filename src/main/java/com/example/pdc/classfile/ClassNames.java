@@ -0,0 +1,62 @@
+package com.example.pdc.classfile;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The names of the types of an analysis, each kept once and numbered densely
+ * from 0 in the order they are first seen. A {@link ClassInfo} refers to types
+ * by these numbers, so the thousands of references to the same few types cost
+ * an int each instead of a string. Safe to share between threads; looking up a
+ * known name takes no lock.
+ */
+public final class ClassNames {
+	private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+	private volatile String[] names = new String[1024];
+	private int size;
+
+	/**
+	 * Returns the number of a name, numbering it if it is new.
+	 *
+	 * @param name The fully qualified name of a type.
+	 * @return The number of the name.
+	 */
+	public int id(String name) {
+		final Integer id = this.ids.get(name);
+		return id == null ? this.add(name) : id;
+	}
+
+	/**
+	 * Returns the name of a number.
+	 *
+	 * @param id A number returned by {@link #id(String)}.
+	 * @return The name.
+	 */
+	public String name(int id) {
+		return this.names[id];
+	}
+
+	/**
+	 * Returns the number of names, which is the next number given.
+	 */
+	public synchronized int size() {
+		return this.size;
+	}
+
+	private synchronized int add(String name) {
+		final Integer present = this.ids.get(name);
+		if (present != null) {
+			return present;
+		}
+		String[] current = this.names;
+		if (this.size == current.length) {
+			current = Arrays.copyOf(current, 2 * current.length);
+		}
+		current[this.size] = name;
+		// Publishes the name before its number becomes visible.
+		this.names = current;
+		this.ids.put(name, this.size);
+		return this.size++;
+	}
+}
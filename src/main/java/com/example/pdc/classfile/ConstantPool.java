@@ -0,0 +1,216 @@
+package com.example.pdc.classfile;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * The constant pool of a class file, read straight from its bytes. Entries are
+ * located once; UTF-8 strings are decoded only when they are asked for.
+ */
+final class ConstantPool {
+	private static final int UTF8 = 1;
+	private static final int INTEGER = 3;
+	private static final int FLOAT = 4;
+	private static final int LONG = 5;
+	private static final int DOUBLE = 6;
+	private static final int CLASS = 7;
+	private static final int STRING = 8;
+	private static final int FIELD_REF = 9;
+	private static final int METHOD_REF = 10;
+	private static final int INTERFACE_METHOD_REF = 11;
+	private static final int NAME_AND_TYPE = 12;
+	private static final int METHOD_HANDLE = 15;
+	private static final int METHOD_TYPE = 16;
+	private static final int DYNAMIC = 17;
+	private static final int INVOKE_DYNAMIC = 18;
+	private static final int MODULE = 19;
+	private static final int PACKAGE = 20;
+
+	private final byte[] bytes;
+	private final int[] offsets;
+	private final String[] strings;
+	private final int end;
+
+	/**
+	 * Locates all entries of the constant pool.
+	 *
+	 * @param bytes The bytes of the whole class file.
+	 * @throws IOException If the bytes are not a valid class file.
+	 */
+	ConstantPool(byte[] bytes) throws IOException {
+		this.bytes = bytes;
+		if (bytes.length < 10 || this.u4(0) != 0xCAFEBABE) {
+			throw new IOException("Not a class file");
+		}
+		final int count = this.u2(8);
+		this.offsets = new int[count];
+		this.strings = new String[count];
+		int pos = 10;
+		for (int index = 1; index < count; index++) {
+			this.offsets[index] = pos;
+			final int tag = this.u1(pos);
+			switch (tag) {
+			case UTF8:
+				pos += 3 + this.u2(pos + 1);
+				break;
+			case CLASS:
+			case STRING:
+			case METHOD_TYPE:
+			case MODULE:
+			case PACKAGE:
+				pos += 3;
+				break;
+			case METHOD_HANDLE:
+				pos += 4;
+				break;
+			case INTEGER:
+			case FLOAT:
+			case FIELD_REF:
+			case METHOD_REF:
+			case INTERFACE_METHOD_REF:
+			case NAME_AND_TYPE:
+			case DYNAMIC:
+			case INVOKE_DYNAMIC:
+				pos += 5;
+				break;
+			case LONG:
+			case DOUBLE:
+				pos += 9;
+				index++; // Long and double entries take two slots.
+				break;
+			default:
+				throw new IOException("Unknown constant pool tag " + tag + " at offset " + pos);
+			}
+			if (pos > bytes.length) {
+				throw new IOException("Truncated constant pool");
+			}
+		}
+		this.end = pos;
+	}
+
+	/**
+	 * The offset of the first byte behind the constant pool.
+	 */
+	int end() {
+		return this.end;
+	}
+
+	/**
+	 * The decoded string of a CONSTANT_Utf8 entry.
+	 */
+	String utf8(int index) throws IOException {
+		this.expect(index, UTF8);
+		if (this.strings[index] == null) {
+			final int pos = this.offsets[index];
+			this.strings[index] = this.decode(pos + 3, this.u2(pos + 1));
+		}
+		return this.strings[index];
+	}
+
+	/**
+	 * The binary name (dots as separators) of a CONSTANT_Class entry.
+	 *
+	 * @return The class name, empty for index 0.
+	 */
+	String className(int index) throws IOException {
+		if (index == 0) {
+			return "";
+		}
+		this.expect(index, CLASS);
+		return this.utf8(this.u2(this.offsets[index] + 1)).replace('/', '.');
+	}
+
+	/**
+	 * Collects every type named by a class entry or by a descriptor in the pool.
+	 *
+	 * @param types The collection to add the binary type names to.
+	 */
+	void types(Collection<String> types) throws IOException {
+		for (int index = 1; index < this.offsets.length; index++) {
+			final int pos = this.offsets[index];
+			if (pos == 0) {
+				continue;
+			}
+			switch (this.u1(pos)) {
+			case CLASS:
+				final String name = this.utf8(this.u2(pos + 1));
+				if (name.startsWith("[")) {
+					this.descriptor(name, types);
+				} else {
+					types.add(name.replace('/', '.'));
+				}
+				break;
+			case NAME_AND_TYPE:
+				this.descriptor(this.utf8(this.u2(pos + 3)), types);
+				break;
+			case METHOD_TYPE:
+				this.descriptor(this.utf8(this.u2(pos + 1)), types);
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Collects the object types of a field or method descriptor.
+	 *
+	 * @param descriptor The descriptor, e.g. (Ljava/lang/String;I)V.
+	 * @param types      The collection to add the binary type names to.
+	 */
+	void descriptor(String descriptor, Collection<String> types) {
+		int pos = descriptor.indexOf('L');
+		while (pos >= 0) {
+			final int semicolon = descriptor.indexOf(';', pos);
+			if (semicolon < 0) {
+				return;
+			}
+			types.add(descriptor.substring(pos + 1, semicolon).replace('/', '.'));
+			pos = descriptor.indexOf('L', semicolon);
+		}
+	}
+
+	int u1(int pos) {
+		return this.bytes[pos] & 0xFF;
+	}
+
+	int u2(int pos) {
+		return (this.bytes[pos] & 0xFF) << 8 | this.bytes[pos + 1] & 0xFF;
+	}
+
+	int u4(int pos) {
+		return this.u2(pos) << 16 | this.u2(pos + 2);
+	}
+
+	private void expect(int index, int tag) throws IOException {
+		if (index <= 0 || index >= this.offsets.length || this.offsets[index] == 0
+				|| this.u1(this.offsets[index]) != tag) {
+			throw new IOException("Constant pool entry " + index + " is not of tag " + tag);
+		}
+	}
+
+	/**
+	 * Decodes the "modified UTF-8" used by class files.
+	 */
+	private String decode(int pos, int length) {
+		final char[] chars = new char[length];
+		final int limit = pos + length;
+		int count = 0;
+		int i = pos;
+		while (i < limit) {
+			final int b = this.bytes[i] & 0xFF;
+			if (b < 0x80) {
+				chars[count++] = (char) b;
+				i++;
+			} else if ((b & 0xE0) == 0xC0) {
+				chars[count++] = (char) ((b & 0x1F) << 6 | this.bytes[i + 1] & 0x3F);
+				i += 2;
+			} else {
+				chars[count++] = (char) ((b & 0x0F) << 12 | (this.bytes[i + 1] & 0x3F) << 6
+						| this.bytes[i + 2] & 0x3F);
+				i += 3;
+			}
+		}
+		return new String(chars, 0, count);
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.pdc.dependency;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.example.pdc.ClassFile;
+import com.example.pdc.Dependency;
+import com.example.pdc.Package;
+
+/**
+ * The package-to-package dependencies derived from the type references in the
+ * bytecode of the analyzed classes. References to packages outside the
+ * analyzed codebase (e.g. java.lang) and references within a package are not
+ * dependencies.
+ */
+public final class ReferenceDependencies {
+	private final Collection<ClassFile> classFiles;
+	private final Collection<Package> packages;
+
+	public ReferenceDependencies(Collection<ClassFile> classFiles, Collection<Package> packages) {
+		this.classFiles = Objects.requireNonNull(classFiles);
+		this.packages = Objects.requireNonNull(packages);
+	}
+
+	/**
+	 * Computes the dependencies, each pair of packages at most once.
+	 *
+	 * @return A collection of dependencies.
+	 */
+	public Collection<Dependency> dependencies() {
+		final Map<String, Package> packageMap = new HashMap<>();
+		this.packages.forEach(pkg -> packageMap.put(pkg.name(), pkg));
+		final Set<Dependency> dependencies = new LinkedHashSet<>();
+		for (final ClassFile classFile : this.classFiles) {
+			final Package source = packageMap.get(classFile.packageName());
+			if (source == null) {
+				continue;
+			}
+			for (final String reference : classFile.references()) {
+				final int dot = reference.lastIndexOf('.');
+				final Package target = packageMap.get(dot < 0 ? "" : reference.substring(0, dot));
+				if (target != null && target != source) {
+					dependencies.add(new SimpleDependency(source, target));
+				}
+			}
+		}
+		return dependencies;
+	}
+}
@@ -0,0 +1,52 @@
+package com.example.pdc.dependency;
+
+import java.util.Objects;
+
+import com.example.pdc.Dependency;
+import com.example.pdc.Package;
+
+/**
+ * An immutable dependency from one package to another. Two dependencies are
+ * equal if they connect packages of the same names.
+ */
+public final class SimpleDependency implements Dependency {
+	private final Package source;
+	private final Package target;
+
+	public SimpleDependency(Package source, Package target) {
+		this.source = Objects.requireNonNull(source);
+		this.target = Objects.requireNonNull(target);
+	}
+
+	@Override
+	public Package source() {
+		return this.source;
+	}
+
+	@Override
+	public Package target() {
+		return this.target;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		SimpleDependency that = (SimpleDependency) o;
+		return source.name().equals(that.source.name()) && target.name().equals(that.target.name());
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(source.name(), target.name());
+	}
+
+	@Override
+	public String toString() {
+		return this.source.name() + " → " + this.target.name();
+	}
+}
@@ -0,0 +1,294 @@
+package com.example.pdc.graph;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import com.example.pdc.ClassFile;
+import com.example.pdc.Graph;
+
+/**
+ * The directed graph of type references between the analyzed classes, built
+ * from the bytecode. References to classes of packages outside the analyzed
+ * code base (e.g. java.lang) are not edges. A class that is referred to but
+ * missing in an analyzed package is a node without references of its own.
+ * <p>
+ * Classes have dense int ids ordered by package, then by name, so the classes
+ * of a package form one id range. The edges are stored once, as pairs of class
+ * ids grouped by the pair of packages they connect: the groups of a source
+ * package are sorted by target package, the pairs of a group by target class,
+ * then source class. The package graph is the roll-up of the groups and is
+ * derived on demand; the class pairs behind a package dependency are a range
+ * of the pair arrays, found by one binary search.
+ */
+public final class ClassGraph implements Graph {
+	private final String[] classNames;
+	private final String[] packageNames;
+	// classes of package p: classOffsets[p] to classOffsets[p + 1] - 1
+	private final int[] classOffsets;
+	// groups of package p: groupOffsets[p] to groupOffsets[p + 1] - 1
+	private final int[] groupOffsets;
+	private final int[] groupTargets;
+	// pairs of group g: pairOffsets[g] to pairOffsets[g + 1] - 1
+	private final int[] pairOffsets;
+	private final int[] pairSources;
+	private final int[] pairTargets;
+	private DependencyGraph packageGraph;
+
+	/**
+	 * Builds the graph in O(C + R log R) for C classes and R references.
+	 *
+	 * @param classFiles The analyzed classes; of several classes with the same
+	 *                   name, the first is kept.
+	 */
+	public ClassGraph(Collection<ClassFile> classFiles) {
+		final Map<String, ClassFile> byName = new HashMap<>(2 * Objects.requireNonNull(classFiles).size());
+		final Set<String> packageSet = new HashSet<>();
+		for (final ClassFile classFile : classFiles) {
+			byName.putIfAbsent(classFile.name(), classFile);
+			packageSet.add(classFile.packageName());
+		}
+		final List<String[]> entries = new ArrayList<>(byName.size());
+		final Set<String> missing = new HashSet<>();
+		int references = 0;
+		for (final ClassFile classFile : byName.values()) {
+			entries.add(new String[] {
+					classFile.packageName(), classFile.name()
+			});
+			for (final String reference : classFile.references()) {
+				final int dot = reference.lastIndexOf('.');
+				final String pkg = dot < 0 ? "" : reference.substring(0, dot);
+				if (!byName.containsKey(reference) && packageSet.contains(pkg) && missing.add(reference)) {
+					entries.add(new String[] {
+							pkg, reference
+					});
+				}
+			}
+			references += classFile.references().size();
+		}
+		entries.sort(Comparator.<String[], String>comparing(entry -> entry[0]).thenComparing(entry -> entry[1]));
+		final int size = entries.size();
+		final Map<String, Integer> ids = new HashMap<>(2 * size);
+		this.classNames = new String[size];
+		final int[] packageOf = new int[size];
+		final List<String> packages = new ArrayList<>();
+		final List<Integer> offsets = new ArrayList<>();
+		for (int id = 0; id < size; id++) {
+			final String[] entry = entries.get(id);
+			this.classNames[id] = entry[1];
+			ids.put(entry[1], id);
+			if (packages.isEmpty() || !packages.get(packages.size() - 1).equals(entry[0])) {
+				packages.add(entry[0]);
+				offsets.add(id);
+			}
+			packageOf[id] = packages.size() - 1;
+		}
+		offsets.add(size);
+		this.packageNames = packages.toArray(new String[0]);
+		this.classOffsets = offsets.stream().mapToInt(Integer::intValue).toArray();
+
+		this.groupOffsets = new int[this.packageNames.length + 1];
+		final int[] targets = new int[references];
+		final int[] starts = new int[references + 1];
+		final int[] sources = new int[references];
+		final int[] ends = new int[references];
+		long[] buffer = new long[16];
+		int groups = 0;
+		int pairs = 0;
+		for (int pkg = 0; pkg < this.packageNames.length; pkg++) {
+			this.groupOffsets[pkg] = groups;
+			int count = 0;
+			for (int source = this.classOffsets[pkg]; source < this.classOffsets[pkg + 1]; source++) {
+				final ClassFile classFile = byName.get(this.classNames[source]);
+				if (classFile == null) {
+					continue;
+				}
+				for (final String reference : classFile.references()) {
+					final Integer target = ids.get(reference);
+					if (target != null && target != source) {
+						if (count == buffer.length) {
+							buffer = Arrays.copyOf(buffer, 2 * count);
+						}
+						buffer[count++] = (long) target << 32 | source;
+					}
+				}
+			}
+			Arrays.sort(buffer, 0, count);
+			for (int i = 0; i < count; i++) {
+				if (i > 0 && buffer[i] == buffer[i - 1]) {
+					continue;
+				}
+				final int target = (int) (buffer[i] >>> 32);
+				if (groups == this.groupOffsets[pkg] || targets[groups - 1] != packageOf[target]) {
+					starts[groups] = pairs;
+					targets[groups++] = packageOf[target];
+				}
+				sources[pairs] = (int) buffer[i];
+				ends[pairs++] = target;
+			}
+		}
+		this.groupOffsets[this.packageNames.length] = groups;
+		starts[groups] = pairs;
+		this.groupTargets = Arrays.copyOf(targets, groups);
+		this.pairOffsets = Arrays.copyOf(starts, groups + 1);
+		this.pairSources = Arrays.copyOf(sources, pairs);
+		this.pairTargets = Arrays.copyOf(ends, pairs);
+	}
+
+	/**
+	 * Returns the package dependency graph rolled up from the class references,
+	 * building it on first use. Its nodes are all packages with classes; a
+	 * package depends on another if one of its classes refers to a class of
+	 * the other. References within a package are no dependencies.
+	 */
+	public synchronized DependencyGraph packages() {
+		if (this.packageGraph == null) {
+			int count = 0;
+			for (int pkg = 0; pkg < this.packageNames.length; pkg++) {
+				for (int group = this.groupOffsets[pkg]; group < this.groupOffsets[pkg + 1]; group++) {
+					if (this.groupTargets[group] != pkg) {
+						count++;
+					}
+				}
+			}
+			final int[] sources = new int[count];
+			final int[] ends = new int[count];
+			int edge = 0;
+			for (int pkg = 0; pkg < this.packageNames.length; pkg++) {
+				for (int group = this.groupOffsets[pkg]; group < this.groupOffsets[pkg + 1]; group++) {
+					if (this.groupTargets[group] != pkg) {
+						sources[edge] = pkg;
+						ends[edge++] = this.groupTargets[group];
+					}
+				}
+			}
+			this.packageGraph = new DependencyGraph(new CompactGraph(this.packageNames, sources, ends));
+		}
+		return this.packageGraph;
+	}
+
+	/**
+	 * Returns the class references behind a package dependency, in
+	 * O(log(out-degree)) for the lookup and O(1) per pair.
+	 *
+	 * @param source The name of the depending package.
+	 * @param target The name of the package depended on.
+	 * @return A view of the pairs of referring and referred class names, empty
+	 *         if the source does not depend on the target.
+	 */
+	public List<String[]> references(String source, String target) {
+		final int group = this.group(source, target);
+		if (group < 0) {
+			return Collections.emptyList();
+		}
+		final int first = this.pairOffsets[group];
+		final int last = this.pairOffsets[group + 1];
+		return new AbstractList<String[]>() {
+			@Override
+			public String[] get(int index) {
+				Objects.checkIndex(index, last - first);
+				return new String[] {
+						classNames[pairSources[first + index]], classNames[pairTargets[first + index]]
+				};
+			}
+
+			@Override
+			public int size() {
+				return last - first;
+			}
+		};
+	}
+
+	/**
+	 * Returns the number of class references behind a package dependency.
+	 *
+	 * @param source The name of the depending package.
+	 * @param target The name of the package depended on.
+	 * @return The number of pairs of referring and referred class, 0 if the
+	 *         source does not depend on the target.
+	 */
+	public int referenceCount(String source, String target) {
+		final int group = this.group(source, target);
+		return group < 0 ? 0 : this.pairOffsets[group + 1] - this.pairOffsets[group];
+	}
+
+	/**
+	 * Returns the names of the classes of a package.
+	 *
+	 * @param pkg The name of the package.
+	 * @return The class names, sorted; empty if there is no such package.
+	 */
+	public List<String> classes(String pkg) {
+		final int id = Arrays.binarySearch(this.packageNames, pkg);
+		if (id < 0) {
+			return Collections.emptyList();
+		}
+		return Collections
+				.unmodifiableList(Arrays.asList(this.classNames).subList(this.classOffsets[id], this.classOffsets[id + 1]));
+	}
+
+	@Override
+	public Collection<String> nodes() {
+		return Collections.unmodifiableList(Arrays.asList(this.classNames));
+	}
+
+	/**
+	 * Returns a view of all class references; the pairs are created while
+	 * iterating.
+	 */
+	@Override
+	public Collection<String[]> edges() {
+		return new AbstractCollection<String[]>() {
+			@Override
+			public Iterator<String[]> iterator() {
+				return new Iterator<String[]>() {
+					private int pair;
+
+					@Override
+					public boolean hasNext() {
+						return this.pair < pairSources.length;
+					}
+
+					@Override
+					public String[] next() {
+						if (!this.hasNext()) {
+							throw new NoSuchElementException();
+						}
+						final int current = this.pair++;
+						return new String[] {
+								classNames[pairSources[current]], classNames[pairTargets[current]]
+						};
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return pairSources.length;
+			}
+		};
+	}
+
+	private int group(String source, String target) {
+		final int from = Arrays.binarySearch(this.packageNames, source);
+		final int to = Arrays.binarySearch(this.packageNames, target);
+		if (from < 0 || to < 0) {
+			return -1;
+		}
+		final int group = Arrays.binarySearch(this.groupTargets, this.groupOffsets[from], this.groupOffsets[from + 1],
+				to);
+		return group < 0 ? -1 : group;
+	}
+}
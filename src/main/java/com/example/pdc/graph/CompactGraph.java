@@ -0,0 +1,350 @@
+package com.example.pdc.graph;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import com.example.pdc.Graph;
+
+/**
+ * An immutable directed graph in compressed sparse row (CSR) form. Node names
+ * are interned to dense int ids in sorted order; the targets of node {@code n}
+ * are {@code targets[offsets[n]]} to {@code targets[offsets[n + 1] - 1]},
+ * sorted and without duplicates. A reverse index of the same form can be kept
+ * for traversals against the edge direction.
+ */
+public final class CompactGraph implements Graph {
+	private final String[] names;
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] reverseOffsets;
+	private final int[] reverseTargets;
+
+	/**
+	 * Creates a CompactGraph without reverse index.
+	 *
+	 * @param nodes The node IDs; endpoints of edges are added if missing.
+	 * @param edges The edges as pairs of node IDs.
+	 */
+	public CompactGraph(Collection<String> nodes, Collection<String[]> edges) {
+		this(nodes, edges, false);
+	}
+
+	/**
+	 * Creates a CompactGraph.
+	 *
+	 * @param nodes   The node IDs; endpoints of edges are added if missing.
+	 * @param edges   The edges as pairs of node IDs.
+	 * @param reverse Whether to build the reverse index as well.
+	 */
+	public CompactGraph(Collection<String> nodes, Collection<String[]> edges, boolean reverse) {
+		final String[] all = new String[nodes.size() + 2 * edges.size()];
+		int count = 0;
+		for (final String node : nodes) {
+			all[count++] = Objects.requireNonNull(node);
+		}
+		for (final String[] edge : edges) {
+			all[count++] = Objects.requireNonNull(edge[0]);
+			all[count++] = Objects.requireNonNull(edge[1]);
+		}
+		Arrays.sort(all, 0, count);
+		int unique = 0;
+		for (int i = 0; i < count; i++) {
+			if (unique == 0 || !all[i].equals(all[unique - 1])) {
+				all[unique++] = all[i];
+			}
+		}
+		this.names = Arrays.copyOf(all, unique);
+		final int[] sources = new int[edges.size()];
+		final int[] ends = new int[edges.size()];
+		int e = 0;
+		for (final String[] edge : edges) {
+			sources[e] = this.id(edge[0]);
+			ends[e++] = this.id(edge[1]);
+		}
+		final int[][] forward = this.rows(sources, ends);
+		this.offsets = forward[0];
+		this.targets = forward[1];
+		if (reverse) {
+			final int[][] backward = this.rows(ends, sources);
+			this.reverseOffsets = backward[0];
+			this.reverseTargets = backward[1];
+		} else {
+			this.reverseOffsets = null;
+			this.reverseTargets = null;
+		}
+	}
+
+	/**
+	 * Creates a CompactGraph without reverse index on nodes that already have
+	 * int ids. If the names are not sorted, they are sorted and the edges are
+	 * mapped to the new ids.
+	 *
+	 * @param names   The unique node IDs, indexed by int id; taken over.
+	 * @param sources The source ids of the edges; taken over.
+	 * @param ends    The target ids of the edges; taken over.
+	 */
+	CompactGraph(String[] names, int[] sources, int[] ends) {
+		boolean sorted = true;
+		for (int i = 1; i < names.length && sorted; i++) {
+			sorted = names[i - 1].compareTo(names[i]) < 0;
+		}
+		if (sorted) {
+			this.names = names;
+		} else {
+			this.names = names.clone();
+			Arrays.sort(this.names);
+			final int[] ids = new int[names.length];
+			for (int id = 0; id < names.length; id++) {
+				ids[id] = this.id(names[id]);
+			}
+			for (int e = 0; e < sources.length; e++) {
+				sources[e] = ids[sources[e]];
+				ends[e] = ids[ends[e]];
+			}
+		}
+		final int[][] forward = this.rows(sources, ends);
+		this.offsets = forward[0];
+		this.targets = forward[1];
+		this.reverseOffsets = null;
+		this.reverseTargets = null;
+	}
+
+	private CompactGraph(String[] names, int[] offsets, int[] targets, int[] reverseOffsets, int[] reverseTargets) {
+		this.names = names;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.reverseOffsets = reverseOffsets;
+		this.reverseTargets = reverseTargets;
+	}
+
+	/**
+	 * The number of nodes. Node ids are 0 to size() - 1.
+	 */
+	public int size() {
+		return this.names.length;
+	}
+
+	/**
+	 * The id of a node.
+	 *
+	 * @param name The node ID.
+	 * @return The int id, or -1 if the graph has no such node.
+	 */
+	public int id(String name) {
+		final int id = Arrays.binarySearch(this.names, name);
+		return id < 0 ? -1 : id;
+	}
+
+	/**
+	 * The node ID of an int id.
+	 */
+	public String name(int id) {
+		return this.names[id];
+	}
+
+	/**
+	 * The position of the first outgoing edge of a node in {@link #target(int)}.
+	 */
+	public int first(int id) {
+		return this.offsets[id];
+	}
+
+	/**
+	 * The position behind the last outgoing edge of a node.
+	 */
+	public int last(int id) {
+		return this.offsets[id + 1];
+	}
+
+	/**
+	 * The target node of the edge at the given position.
+	 */
+	public int target(int edge) {
+		return this.targets[edge];
+	}
+
+	/**
+	 * Whether the graph has an edge from one node to another, in
+	 * O(log(out-degree)).
+	 */
+	public boolean hasEdge(int source, int target) {
+		return Arrays.binarySearch(this.targets, this.offsets[source], this.offsets[source + 1], target) >= 0;
+	}
+
+	/**
+	 * The number of edges.
+	 */
+	public int edgeCount() {
+		return this.targets.length;
+	}
+
+	/**
+	 * The same graph with all edges reversed. Shares the arrays if the reverse
+	 * index was built, otherwise computes it in O(V+E).
+	 *
+	 * @return The transposed graph, which has this graph as reverse index.
+	 */
+	public CompactGraph reversed() {
+		if (this.reverseOffsets != null) {
+			return new CompactGraph(this.names, this.reverseOffsets, this.reverseTargets, this.offsets,
+					this.targets);
+		}
+		final int[] sources = new int[this.targets.length];
+		for (int node = 0; node < this.names.length; node++) {
+			Arrays.fill(sources, this.offsets[node], this.offsets[node + 1], node);
+		}
+		final int[][] backward = this.rows(this.targets, sources);
+		return new CompactGraph(this.names, backward[0], backward[1], this.offsets, this.targets);
+	}
+
+	@Override
+	public Collection<String> nodes() {
+		return Collections.unmodifiableList(Arrays.asList(this.names));
+	}
+
+	/**
+	 * Returns a view of all edges; the pairs are created while iterating.
+	 */
+	@Override
+	public Collection<String[]> edges() {
+		return new AbstractCollection<String[]>() {
+			@Override
+			public Iterator<String[]> iterator() {
+				return new Iterator<String[]>() {
+					private int node;
+					private int edge;
+
+					@Override
+					public boolean hasNext() {
+						return this.edge < targets.length;
+					}
+
+					@Override
+					public String[] next() {
+						if (!this.hasNext()) {
+							throw new NoSuchElementException();
+						}
+						while (offsets[this.node + 1] <= this.edge) {
+							this.node++;
+						}
+						return new String[] {
+								names[this.node], names[targets[this.edge++]]
+						};
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return targets.length;
+			}
+		};
+	}
+
+	/**
+	 * Finds the strongly connected components with an iterative variant of
+	 * Tarjan's algorithm with explicit stacks, in O(V+E) and without recursion.
+	 * The components are numbered in the order Tarjan's algorithm completes
+	 * them, which is reverse topological: an edge between two components always
+	 * leads to the one with the lower number.
+	 *
+	 * @param component Receives the number of the component of each node.
+	 * @return The number of components.
+	 */
+	int components(int[] component) {
+		final int size = this.names.length;
+		final int[] index = new int[size];
+		final int[] low = new int[size];
+		final boolean[] onStack = new boolean[size];
+		final int[] stack = new int[size];
+		final int[] callNode = new int[size];
+		final int[] callEdge = new int[size];
+		Arrays.fill(index, -1);
+		int counter = 0;
+		int top = 0;
+		int count = 0;
+
+		for (int root = 0; root < size; root++) {
+			if (index[root] >= 0) {
+				continue;
+			}
+			int calls = 0;
+			index[root] = low[root] = counter++;
+			stack[top++] = root;
+			onStack[root] = true;
+			callNode[calls] = root;
+			callEdge[calls++] = this.offsets[root];
+			while (calls > 0) {
+				final int node = callNode[calls - 1];
+				if (callEdge[calls - 1] < this.offsets[node + 1]) {
+					final int next = this.targets[callEdge[calls - 1]++];
+					if (index[next] < 0) {
+						index[next] = low[next] = counter++;
+						stack[top++] = next;
+						onStack[next] = true;
+						callNode[calls] = next;
+						callEdge[calls++] = this.offsets[next];
+					} else if (onStack[next]) {
+						low[node] = Math.min(low[node], index[next]);
+					}
+					continue;
+				}
+				calls--;
+				if (calls > 0) {
+					final int parent = callNode[calls - 1];
+					low[parent] = Math.min(low[parent], low[node]);
+				}
+				if (low[node] == index[node]) {
+					int member;
+					do {
+						member = stack[--top];
+						onStack[member] = false;
+						component[member] = count;
+					} while (member != node);
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Builds CSR rows by counting sort, then sorts and deduplicates each row.
+	 *
+	 * @return The offsets and the targets.
+	 */
+	private int[][] rows(int[] sources, int[] ends) {
+		final int[] start = new int[this.names.length + 1];
+		for (final int source : sources) {
+			start[source + 1]++;
+		}
+		for (int node = 0; node < this.names.length; node++) {
+			start[node + 1] += start[node];
+		}
+		final int[] fill = Arrays.copyOf(start, this.names.length);
+		final int[] all = new int[sources.length];
+		for (int e = 0; e < sources.length; e++) {
+			all[fill[sources[e]]++] = ends[e];
+		}
+		final int[] rowOffsets = new int[this.names.length + 1];
+		int count = 0;
+		for (int node = 0; node < this.names.length; node++) {
+			Arrays.sort(all, start[node], start[node + 1]);
+			rowOffsets[node] = count;
+			for (int e = start[node]; e < start[node + 1]; e++) {
+				if (count == rowOffsets[node] || all[count - 1] != all[e]) {
+					all[count++] = all[e];
+				}
+			}
+		}
+		rowOffsets[this.names.length] = count;
+		return new int[][] {
+				rowOffsets, Arrays.copyOf(all, count)
+		};
+	}
+}
@@ -1,14 +1,15 @@
 package com.example.pdc.graph;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
+import java.util.PriorityQueue;
+import java.util.function.ToIntBiFunction;
 import java.util.stream.Collectors;
 
 import com.example.pdc.Dependency;
@@ -19,7 +20,8 @@ import com.example.pdc.Graph;
  * classes. This implementation finds circular dependencies.
  */
 public final class DependencyGraph implements Graph {
-	private final Map<String, Set<String>> adjacencyList;
+	private final CompactGraph graph;
+	private Reachability reachability;
 
 	/**
 	 * Constructs a DependencyGraph from a collection of Dependency objects. This is
@@ -28,62 +30,299 @@ public final class DependencyGraph implements Graph {
 	 * @param dependencies The collection of dependencies.
 	 */
 	public DependencyGraph(Collection<Dependency> dependencies) {
-		this.adjacencyList = new HashMap<>();
-		Objects.requireNonNull(dependencies).forEach(dep -> {
-			this.adjacencyList.computeIfAbsent(dep.source().name(), k -> new HashSet<>()).add(dep.target().name());
-			this.adjacencyList.computeIfAbsent(dep.target().name(), k -> new HashSet<>());
-		});
+		this(new CompactGraph(Collections.emptyList(), Objects.requireNonNull(dependencies).stream()
+				.map(dep -> new String[] {
+						dep.source().name(), dep.target().name()
+				}).collect(Collectors.toList())));
 	}
 
 	/**
-	 * Finds all circular dependencies in the graph. Uses a recursive depth-first
-	 * search (DFS) algorithm.
+	 * Constructs a DependencyGraph on an already built compact graph.
+	 *
+	 * @param graph The graph of package names.
+	 */
+	public DependencyGraph(CompactGraph graph) {
+		this.graph = Objects.requireNonNull(graph);
+	}
+
+	/**
+	 * Finds the circular dependencies in the graph, one shortest cycle through
+	 * the first package of every strongly connected component. The cycle starts
+	 * and ends with that package.
 	 *
 	 * @return A collection of cycles, where each cycle is a list of node IDs.
 	 */
 	public Collection<List<String>> findCycles() {
-		final Set<String> visiting = new HashSet<>();
-		final Set<String> visited = new HashSet<>();
-		final Collection<List<String>> cycles = new ArrayList<>();
+		return this.findComponents().stream().map(this::findCycle).collect(Collectors.toList());
+	}
 
-		for (final String node : this.adjacencyList.keySet()) {
-			if (!visited.contains(node)) {
-				this.dfs(node, visiting, visited, new ArrayList<>(), cycles);
+	/**
+	 * Finds all strongly connected components that contain a cycle, i.e. more
+	 * than one node or a node depending on itself. Uses an iterative variant of
+	 * Tarjan's algorithm with explicit stacks, so it runs in O(V+E) and never
+	 * recurses, however deep the graph is.
+	 *
+	 * @return A collection of components, each a sorted list of node IDs, in the
+	 *         order of their first nodes.
+	 */
+	public Collection<List<String>> findComponents() {
+		final int size = this.graph.size();
+		final int[] component = new int[size];
+		final int count = this.graph.components(component);
+		// The members of each component by counting sort; ids are in name order.
+		final int[] offsets = new int[count + 1];
+		for (int node = 0; node < size; node++) {
+			offsets[component[node] + 1]++;
+		}
+		for (int c = 0; c < count; c++) {
+			offsets[c + 1] += offsets[c];
+		}
+		final int[] fill = Arrays.copyOf(offsets, count);
+		final int[] members = new int[size];
+		for (int node = 0; node < size; node++) {
+			members[fill[component[node]]++] = node;
+		}
+		final List<List<String>> components = new ArrayList<>();
+		for (int c = 0; c < count; c++) {
+			final int first = members[offsets[c]];
+			if (offsets[c + 1] - offsets[c] > 1 || this.graph.hasEdge(first, first)) {
+				final List<String> names = new ArrayList<>(offsets[c + 1] - offsets[c]);
+				for (int m = offsets[c]; m < offsets[c + 1]; m++) {
+					names.add(this.graph.name(members[m]));
+				}
+				components.add(names);
 			}
 		}
-		return cycles;
+		components.sort((c1, c2) -> c1.get(0).compareTo(c2.get(0)));
+		return components;
 	}
 
-	private void dfs(String node, Set<String> visiting, Set<String> visited, List<String> path,
-			Collection<List<String>> cycles) {
-		visiting.add(node);
-		path.add(node);
-
-		for (final String neighbor : this.adjacencyList.getOrDefault(node, Collections.emptySet())) {
-			if (visiting.contains(neighbor)) {
-				final int cycleStart = path.indexOf(neighbor);
-				final List<String> cycle = new ArrayList<>(path.subList(cycleStart, path.size()));
-				cycle.add(neighbor);
-				cycles.add(cycle);
-			} else if (!visited.contains(neighbor)) {
-				this.dfs(neighbor, visiting, visited, path, cycles);
+	/**
+	 * Finds a shortest cycle through the first node of a strongly connected
+	 * component, searching breadth-first within the component.
+	 *
+	 * @param component A component as returned by {@link #findComponents()}.
+	 * @return The cycle, starting and ending with the first node.
+	 */
+	public List<String> findCycle(List<String> component) {
+		final int start = this.graph.id(component.get(0));
+		final boolean[] members = new boolean[this.graph.size()];
+		component.forEach(name -> members[this.graph.id(name)] = true);
+		final int[] previous = new int[this.graph.size()];
+		Arrays.fill(previous, -1);
+		final Deque<Integer> queue = new ArrayDeque<>();
+		queue.add(start);
+		while (!queue.isEmpty()) {
+			final int node = queue.poll();
+			for (int edge = this.graph.first(node); edge < this.graph.last(node); edge++) {
+				final int neighbor = this.graph.target(edge);
+				if (neighbor == start) {
+					final List<String> cycle = new ArrayList<>();
+					cycle.add(this.graph.name(start));
+					for (int step = node; step != start; step = previous[step]) {
+						cycle.add(this.graph.name(step));
+					}
+					cycle.add(this.graph.name(start));
+					Collections.reverse(cycle);
+					return cycle;
+				}
+				if (members[neighbor] && previous[neighbor] < 0) {
+					previous[neighbor] = node;
+					queue.add(neighbor);
+				}
+			}
+		}
+		throw new IllegalArgumentException("Not a cyclic component: " + component);
+	}
+
+	/**
+	 * Finds the edges to remove from a strongly connected component, all of
+	 * them weighing one.
+	 *
+	 * @param component A component as returned by {@link #findComponents()}.
+	 * @return The edges to remove, see {@link #feedbackArcs(List, ToIntBiFunction)}.
+	 */
+	public List<String[]> feedbackArcs(List<String> component) {
+		return this.feedbackArcs(component, (source, target) -> 1);
+	}
+
+	/**
+	 * Finds edges of a strongly connected component whose removal leaves it
+	 * without cycles and whose total weight is small: an approximate minimum
+	 * weight feedback arc set. Uses the heuristic of Eades, Lin and Smyth with
+	 * weighted degrees: sinks go to the end of a node order, sources to the
+	 * front, otherwise the node with the largest surplus of outgoing over
+	 * incoming weight goes to the front. The edges pointing backwards in that
+	 * order are the result. Runs in O((V+E) log V) within the component.
+	 *
+	 * @param component A component as returned by {@link #findComponents()}.
+	 * @param weight    The weight of an edge, e.g. the number of class
+	 *                  references it carries; called once per edge.
+	 * @return The edges to remove, lightest first, then by name.
+	 */
+	public List<String[]> feedbackArcs(List<String> component, ToIntBiFunction<String, String> weight) {
+		final int size = component.size();
+		final int[] members = new int[size];
+		for (int local = 0; local < size; local++) {
+			members[local] = this.graph.id(component.get(local));
+		}
+		Arrays.sort(members);
+		// The edges within the component as local CSR rows, out and in.
+		final int[] outOffsets = new int[size + 1];
+		final int[] inOffsets = new int[size + 1];
+		for (int local = 0; local < size; local++) {
+			for (int edge = this.graph.first(members[local]); edge < this.graph.last(members[local]); edge++) {
+				final int target = Arrays.binarySearch(members, this.graph.target(edge));
+				if (target >= 0) {
+					outOffsets[local + 1]++;
+					inOffsets[target + 1]++;
+				}
+			}
+		}
+		for (int local = 0; local < size; local++) {
+			outOffsets[local + 1] += outOffsets[local];
+			inOffsets[local + 1] += inOffsets[local];
+		}
+		final int edges = outOffsets[size];
+		final int[] outTargets = new int[edges];
+		final int[] outWeights = new int[edges];
+		final int[] inSources = new int[edges];
+		final int[] inWeights = new int[edges];
+		final int[] fill = Arrays.copyOf(inOffsets, size);
+		final long[] outWeight = new long[size];
+		final long[] inWeight = new long[size];
+		final int[] outDegree = new int[size];
+		final int[] inDegree = new int[size];
+		for (int local = 0, e = 0; local < size; local++) {
+			for (int edge = this.graph.first(members[local]); edge < this.graph.last(members[local]); edge++) {
+				final int target = Arrays.binarySearch(members, this.graph.target(edge));
+				if (target >= 0) {
+					final int w = weight.applyAsInt(this.graph.name(members[local]), this.graph.name(members[target]));
+					outTargets[e] = target;
+					outWeights[e++] = w;
+					inSources[fill[target]] = local;
+					inWeights[fill[target]++] = w;
+					outWeight[local] += w;
+					inWeight[target] += w;
+					outDegree[local]++;
+					inDegree[target]++;
+				}
+			}
+		}
+
+		// Eades-Lin-Smyth: the front grows from position 0, the back from size - 1.
+		final int[] position = new int[size];
+		final boolean[] placed = new boolean[size];
+		final int[] sinks = new int[size];
+		final int[] sources = new int[size];
+		int sinkCount = 0;
+		int sourceCount = 0;
+		final PriorityQueue<long[]> surplus = new PriorityQueue<>(
+				(a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(a[1], b[1]));
+		for (int local = 0; local < size; local++) {
+			surplus.add(new long[] {
+					outWeight[local] - inWeight[local], local
+			});
+		}
+		int front = 0;
+		int back = size - 1;
+		while (front <= back) {
+			final int node;
+			if (sinkCount > 0) {
+				node = sinks[--sinkCount];
+				if (placed[node]) {
+					continue;
+				}
+				position[node] = back--;
+			} else if (sourceCount > 0) {
+				node = sources[--sourceCount];
+				if (placed[node]) {
+					continue;
+				}
+				position[node] = front++;
+			} else {
+				final long[] best = surplus.poll();
+				node = (int) best[1];
+				if (placed[node] || best[0] != outWeight[node] - inWeight[node]) {
+					continue;
+				}
+				position[node] = front++;
+			}
+			placed[node] = true;
+			for (int e = outOffsets[node]; e < outOffsets[node + 1]; e++) {
+				final int target = outTargets[e];
+				if (!placed[target]) {
+					inWeight[target] -= outWeights[e];
+					if (--inDegree[target] == 0) {
+						sources[sourceCount++] = target;
+					}
+					surplus.add(new long[] {
+							outWeight[target] - inWeight[target], target
+					});
+				}
+			}
+			for (int e = inOffsets[node]; e < inOffsets[node + 1]; e++) {
+				final int source = inSources[e];
+				if (!placed[source]) {
+					outWeight[source] -= inWeights[e];
+					if (--outDegree[source] == 0) {
+						sinks[sinkCount++] = source;
+					}
+					surplus.add(new long[] {
+							outWeight[source] - inWeight[source], source
+					});
+				}
 			}
 		}
-		visiting.remove(node);
-		visited.add(node);
-		path.remove(path.size() - 1);
+
+		// Each arc as its weight and its rank in name order, which sorts both.
+		final long[] arcs = new long[edges];
+		final int[] arcSources = new int[edges];
+		int count = 0;
+		for (int local = 0; local < size; local++) {
+			for (int e = outOffsets[local]; e < outOffsets[local + 1]; e++) {
+				if (position[outTargets[e]] <= position[local]) {
+					arcSources[e] = local;
+					arcs[count++] = (long) outWeights[e] << 32 | e;
+				}
+			}
+		}
+		Arrays.sort(arcs, 0, count);
+		final List<String[]> result = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			final int e = (int) arcs[i];
+			result.add(new String[] {
+					this.graph.name(members[arcSources[e]]), this.graph.name(members[outTargets[e]])
+			});
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the transitive closure of this graph, building it on first use.
+	 * The graph never changes, so all rules of a check share one closure.
+	 */
+	public synchronized Reachability reachability() {
+		if (this.reachability == null) {
+			this.reachability = new Reachability(this.graph);
+		}
+		return this.reachability;
+	}
+
+	/**
+	 * Returns the compact int-indexed form of this graph.
+	 */
+	public CompactGraph compact() {
+		return this.graph;
 	}
 
 	@Override
 	public Collection<String> nodes() {
-		return Collections.unmodifiableSet(this.adjacencyList.keySet());
+		return this.graph.nodes();
 	}
 
 	@Override
 	public Collection<String[]> edges() {
-		return this.adjacencyList.entrySet().stream()
-				.flatMap(entry -> entry.getValue().stream().map(target -> new String[] {
-						entry.getKey(), target
-				})).collect(Collectors.toList());
+		return this.graph.edges();
 	}
 }
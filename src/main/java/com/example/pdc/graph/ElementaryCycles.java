@@ -0,0 +1,258 @@
+package com.example.pdc.graph;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Enumerates the elementary cycles of a dependency graph with Johnson's
+ * algorithm, one strongly connected component at a time, within limits on the
+ * cycle length, the number of cycles and the time. Dense tangles have
+ * exponentially many cycles, so the limits keep the time and memory bounded;
+ * cycles are passed on as they are found and not collected.
+ * <p>
+ * The order is deterministic: components in the order of
+ * {@link DependencyGraph#findComponents()}, within a component by the smallest
+ * node of the cycle, then in the order of the sorted edges. Each cycle starts
+ * and ends with its smallest node.
+ * <p>
+ * The search is iterative and needs O(V+E) memory per component. Johnson's
+ * blocking assumes a complete search, so a node whose search was cut off by
+ * the length limit is not kept blocked; this keeps the result exact for the
+ * cycles within the limit.
+ */
+public final class ElementaryCycles {
+	// How many search steps to take between two looks at the clock.
+	private static final int CLOCK = 4096;
+
+	private final DependencyGraph graph;
+	private final int maxLength;
+	private final long maxCount;
+	private final Duration budget;
+
+	/**
+	 * Creates an unbounded ElementaryCycles. Use with care: the number of
+	 * cycles may be exponential.
+	 *
+	 * @param graph The graph.
+	 */
+	public ElementaryCycles(DependencyGraph graph) {
+		this(graph, Integer.MAX_VALUE, Long.MAX_VALUE, Duration.ofSeconds(Long.MAX_VALUE));
+	}
+
+	/**
+	 * Creates an ElementaryCycles.
+	 *
+	 * @param graph     The graph.
+	 * @param maxLength The maximum number of edges of a cycle; longer cycles
+	 *                  are skipped.
+	 * @param maxCount  The maximum number of cycles to pass on.
+	 * @param budget    The maximum time of a single enumeration.
+	 */
+	public ElementaryCycles(DependencyGraph graph, int maxLength, long maxCount, Duration budget) {
+		if (maxLength < 1 || maxCount < 0) {
+			throw new IllegalArgumentException("Invalid limits: length " + maxLength + ", count " + maxCount);
+		}
+		this.graph = Objects.requireNonNull(graph);
+		this.maxLength = maxLength;
+		this.maxCount = maxCount;
+		this.budget = Objects.requireNonNull(budget);
+	}
+
+	/**
+	 * Enumerates the cycles of all components.
+	 *
+	 * @param sink Receives each cycle.
+	 * @return True if all cycles within the length limit were passed on, false
+	 *         if the count or time limit stopped the enumeration.
+	 */
+	public boolean enumerate(Consumer<List<String>> sink) {
+		final Search search = new Search(sink);
+		for (final List<String> component : this.graph.findComponents()) {
+			if (!search.run(component)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Enumerates the cycles of one component.
+	 *
+	 * @param component A component as returned by
+	 *                  {@link DependencyGraph#findComponents()}.
+	 * @param sink      Receives each cycle.
+	 * @return True if all cycles within the length limit were passed on, false
+	 *         if the count or time limit stopped the enumeration.
+	 */
+	public boolean enumerate(List<String> component, Consumer<List<String>> sink) {
+		return new Search(sink).run(component);
+	}
+
+	/**
+	 * The state of one enumeration, shared by its components.
+	 */
+	private final class Search {
+		private final Consumer<List<String>> sink;
+		private final long deadline;
+		private long count;
+		private int steps;
+
+		Search(Consumer<List<String>> sink) {
+			this.sink = Objects.requireNonNull(sink);
+			final long now = System.nanoTime();
+			final long nanos = budget.compareTo(Duration.ofNanos(Long.MAX_VALUE - now)) >= 0 ? Long.MAX_VALUE - now
+					: budget.toNanos();
+			this.deadline = now + nanos;
+		}
+
+		/**
+		 * Runs Johnson's algorithm on one component.
+		 *
+		 * @return False if a limit stopped it.
+		 */
+		boolean run(List<String> component) {
+			final CompactGraph compact = graph.compact();
+			final int size = component.size();
+			final int[] members = new int[size];
+			for (int local = 0; local < size; local++) {
+				members[local] = compact.id(component.get(local));
+			}
+			Arrays.sort(members);
+			// The edges within the component as local CSR rows.
+			final int[] offsets = new int[size + 1];
+			for (int local = 0; local < size; local++) {
+				for (int edge = compact.first(members[local]); edge < compact.last(members[local]); edge++) {
+					if (Arrays.binarySearch(members, compact.target(edge)) >= 0) {
+						offsets[local + 1]++;
+					}
+				}
+			}
+			for (int local = 0; local < size; local++) {
+				offsets[local + 1] += offsets[local];
+			}
+			final int[] targets = new int[offsets[size]];
+			final int[] sources = new int[offsets[size]];
+			for (int local = 0, e = 0; local < size; local++) {
+				for (int edge = compact.first(members[local]); edge < compact.last(members[local]); edge++) {
+					final int target = Arrays.binarySearch(members, compact.target(edge));
+					if (target >= 0) {
+						sources[e] = local;
+						targets[e++] = target;
+					}
+				}
+			}
+
+			final boolean[] blocked = new boolean[size];
+			// B lists of Johnson's algorithm as lists of edges into a node:
+			// edge v -> w is in the list of w while v waits for w to unblock.
+			final int[] waiting = new int[size];
+			final int[] next = new int[targets.length];
+			final boolean[] listed = new boolean[targets.length];
+			Arrays.fill(waiting, -1);
+			final int[] path = new int[size];
+			final int[] cursor = new int[size];
+			final boolean[] found = new boolean[size];
+			final int[] touched = new int[size];
+			final int[] touchedBy = new int[size];
+			final int[] unblocking = new int[size];
+			for (int start = 0; start < size; start++) {
+				int touchedCount = 0;
+				int depth = 0;
+				path[depth] = start;
+				cursor[depth] = offsets[start];
+				found[depth++] = false;
+				blocked[start] = true;
+				touchedBy[start] = start + 1;
+				touched[touchedCount++] = start;
+				while (depth > 0) {
+					if (++this.steps == CLOCK) {
+						this.steps = 0;
+						if (System.nanoTime() - this.deadline > 0) {
+							return false;
+						}
+					}
+					final int node = path[depth - 1];
+					if (cursor[depth - 1] < offsets[node + 1]) {
+						final int target = targets[cursor[depth - 1]++];
+						if (target == start) {
+							if (this.count == maxCount) {
+								return false;
+							}
+							this.count++;
+							this.sink.accept(this.cycle(compact, members, path, depth));
+							found[depth - 1] = true;
+						} else if (target > start && !blocked[target]) {
+							if (depth == maxLength) {
+								// cut off: treated as found, so nothing stays blocked
+								found[depth - 1] = true;
+							} else {
+								path[depth] = target;
+								cursor[depth] = offsets[target];
+								found[depth++] = false;
+								blocked[target] = true;
+								if (touchedBy[target] != start + 1) {
+									touchedBy[target] = start + 1;
+									touched[touchedCount++] = target;
+								}
+							}
+						}
+						continue;
+					}
+					if (found[depth - 1]) {
+						int pending = 0;
+						unblocking[pending++] = node;
+						while (pending > 0) {
+							final int unblocked = unblocking[--pending];
+							blocked[unblocked] = false;
+							for (int e = waiting[unblocked]; e >= 0; e = next[e]) {
+								listed[e] = false;
+								if (blocked[sources[e]]) {
+									blocked[sources[e]] = false;
+									unblocking[pending++] = sources[e];
+								}
+							}
+							waiting[unblocked] = -1;
+						}
+					} else {
+						for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+							if (targets[e] > start && !listed[e]) {
+								listed[e] = true;
+								next[e] = waiting[targets[e]];
+								waiting[targets[e]] = e;
+							}
+						}
+					}
+					depth--;
+					if (depth > 0 && found[depth]) {
+						found[depth - 1] = true;
+					}
+				}
+				// Reset what this start has touched; nodes below it are never
+				// visited again.
+				for (int i = 0; i < touchedCount; i++) {
+					final int node = touched[i];
+					blocked[node] = false;
+					for (int e = waiting[node]; e >= 0; e = next[e]) {
+						listed[e] = false;
+					}
+					waiting[node] = -1;
+				}
+			}
+			return true;
+		}
+
+		private List<String> cycle(CompactGraph compact, int[] members, int[] path, int depth) {
+			final List<String> cycle = new ArrayList<>(depth + 1);
+			for (int i = 0; i < depth; i++) {
+				cycle.add(compact.name(members[path[i]]));
+			}
+			cycle.add(cycle.get(0));
+			return Collections.unmodifiableList(cycle);
+		}
+	}
+}
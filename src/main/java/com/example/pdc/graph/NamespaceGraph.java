@@ -1,20 +1,25 @@
 package com.example.pdc.graph;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
 
 import com.example.pdc.Graph;
 import com.example.pdc.Package;
 
 /**
  * Ein gerichteter Graph, der die Hierarchie der Java-Pakete (Namespaces) eines
- * Projekts abbildet.
+ * Projekts abbildet. Knoten sind alle Pakete und alle ihre Vorfahren in jeder
+ * Tiefe, Kanten führen vom direkten Vorfahren zum Paket; jede Kante gibt es
+ * genau einmal.
+ * <p>
+ * Aufgebaut wird der Graph über einen Trie der Namenssegmente: jedes Segment
+ * wird einmal interniert, jeder Trie-Knoten hat eine int-ID und ist über
+ * (Eltern-ID, Segment-ID) in einer offenen Hashtabelle auffindbar. Jeder
+ * Paketname wird einmal Zeichen für Zeichen gelesen, ohne {@code split} und
+ * {@code join}.
  */
 public final class NamespaceGraph implements Graph {
-	private final Set<String> nodes;
-	private final Set<String[]> edges;
+	private final CompactGraph graph;
 
 	/**
 	 * Erstellt einen NamespaceGraph aus einer Sammlung von Paketen.
@@ -22,35 +27,266 @@ public final class NamespaceGraph implements Graph {
 	 * @param allPackages Eine Sammlung aller Pakete.
 	 */
 	public NamespaceGraph(Collection<Package> allPackages) {
-		this.nodes = new HashSet<>();
-		this.edges = new HashSet<>();
-		this.buildGraph(allPackages);
+		this.graph = new Trie(allPackages.size()).add(allPackages).graph();
 	}
 
-	private void buildGraph(Collection<Package> allPackages) {
-		// Knoten sind die eindeutigen Paketnamen
-		allPackages.forEach(pkg -> this.nodes.add(pkg.name()));
-
-		// Kanten sind die parent-child Beziehungen der Pakete
-		for (final String packageName : this.nodes) {
-			String[] parts = packageName.split("\\.");
-			if (parts.length > 1) {
-				String parentName = String.join(".", java.util.Arrays.copyOf(parts, parts.length - 1));
-				this.nodes.add(parentName); // Stellt sicher, dass der Parent-Knoten existiert
-				this.edges.add(new String[] {
-						parentName, packageName
-				});
-			}
-		}
+	/**
+	 * Liefert die kompakte, int-indizierte Form des Graphen.
+	 */
+	public CompactGraph compact() {
+		return this.graph;
 	}
 
 	@Override
 	public Collection<String> nodes() {
-		return Collections.unmodifiableSet(this.nodes);
+		return this.graph.nodes();
 	}
 
 	@Override
 	public Collection<String[]> edges() {
-		return Collections.unmodifiableSet(this.edges);
+		return this.graph.edges();
+	}
+
+	/**
+	 * Der Trie der Namenssegmente. Knoten 0 ist die Wurzel, die selbst kein
+	 * Paket ist; alle Arrays wachsen bei Bedarf auf das Doppelte.
+	 */
+	private static final class Trie {
+		// Interniertes Segment je Segment-ID und Hashtabelle der Segment-IDs + 1
+		private String[] segments = new String[16];
+		private int segmentCount;
+		private int[] segmentTable = new int[32];
+
+		// Eltern-ID, Segment-ID und ggf. Paketname je Knoten-ID
+		private int[] parents;
+		private int[] parts;
+		private String[] names;
+		private int nodeCount = 1;
+		// Hashtabelle der Knoten-IDs + 1, Schlüssel (Eltern-ID, Segment-ID)
+		private int[] children;
+
+		Trie(int packages) {
+			final int capacity = Math.max(16, 2 * packages);
+			this.parents = new int[capacity];
+			this.parts = new int[capacity];
+			this.names = new String[capacity];
+			this.children = new int[Integer.highestOneBit(2 * capacity - 1) * 2];
+		}
+
+		/**
+		 * Fügt alle Pakete mit ihren Vorfahren ein, in einem Durchlauf über
+		 * die Zeichen der Paketnamen.
+		 */
+		Trie add(Collection<Package> packages) {
+			for (final Package pkg : packages) {
+				final String name = pkg.name();
+				int node = 0;
+				int from = 0;
+				while (from <= name.length()) {
+					int to = name.indexOf('.', from);
+					if (to < 0) {
+						to = name.length();
+					}
+					node = this.child(node, this.segment(name, from, to));
+					from = to + 1;
+				}
+				this.names[node] = name;
+			}
+			return this;
+		}
+
+		/**
+		 * Ordnet die Knoten lexikographisch, erzeugt die fehlenden Namen der
+		 * Vorfahren und liefert den Graphen mit einer Kante je Trie-Kante.
+		 */
+		CompactGraph graph() {
+			final int[] order = this.preorder();
+			final int size = this.nodeCount - 1;
+			final int[] ids = new int[this.nodeCount];
+			final String[] sorted = new String[size];
+			for (int i = 0; i < size; i++) {
+				final int node = order[i];
+				ids[node] = i;
+				if (this.names[node] == null) {
+					final int parent = this.parents[node];
+					this.names[node] = parent == 0 ? this.segments[this.parts[node]]
+							: this.names[parent] + '.' + this.segments[this.parts[node]];
+				}
+				sorted[i] = this.names[node];
+			}
+			int edgeCount = 0;
+			for (int node = 1; node < this.nodeCount; node++) {
+				if (this.parents[node] != 0) {
+					edgeCount++;
+				}
+			}
+			final int[] sources = new int[edgeCount];
+			final int[] ends = new int[edgeCount];
+			int e = 0;
+			for (int node = 1; node < this.nodeCount; node++) {
+				if (this.parents[node] != 0) {
+					sources[e] = ids[this.parents[node]];
+					ends[e++] = ids[node];
+				}
+			}
+			return new CompactGraph(sorted, sources, ends);
+		}
+
+		/**
+		 * Liefert die Knoten ohne Wurzel in Präordnung, Geschwister nach
+		 * Segment sortiert. Bis auf Segmente mit Zeichen vor '.' (etwa '$') ist
+		 * das die lexikographische Ordnung der Namen; sonst sortiert der
+		 * CompactGraph nach. Die Geschwister werden mit zwei stabilen
+		 * Zählsortierungen gruppiert, nach Segmentrang und dann nach Eltern.
+		 */
+		private int[] preorder() {
+			final int[] rank = this.ranks();
+			final int[] bySegment = this.countingSort(null, rank, this.segmentCount);
+			final int[] offsets = new int[this.nodeCount + 1];
+			final int[] byParent = this.countingSort(bySegment, this.parents, this.nodeCount, offsets);
+			final int[] order = new int[this.nodeCount - 1];
+			final int[] stack = new int[this.nodeCount];
+			int top = 0;
+			int count = 0;
+			stack[top++] = 0;
+			while (top > 0) {
+				final int node = stack[--top];
+				if (node != 0) {
+					order[count++] = node;
+				}
+				// rückwärts auf den Stapel, damit das kleinste Kind zuerst kommt
+				for (int c = offsets[node + 1] - 1; c >= offsets[node]; c--) {
+					stack[top++] = byParent[c];
+				}
+			}
+			return order;
+		}
+
+		/**
+		 * Der Rang jedes Segments in lexikographischer Ordnung, je Knoten.
+		 */
+		private int[] ranks() {
+			final String[] byName = Arrays.copyOf(this.segments, this.segmentCount);
+			Arrays.sort(byName);
+			final int[] segmentRank = new int[this.segmentCount];
+			for (int s = 0; s < this.segmentCount; s++) {
+				segmentRank[s] = Arrays.binarySearch(byName, this.segments[s]);
+			}
+			final int[] rank = new int[this.nodeCount];
+			for (int node = 1; node < this.nodeCount; node++) {
+				rank[node] = segmentRank[this.parts[node]];
+			}
+			return rank;
+		}
+
+		private int[] countingSort(int[] input, int[] key, int keys) {
+			return this.countingSort(input, key, keys, new int[keys + 1]);
+		}
+
+		/**
+		 * Sortiert die Knoten 1 bis nodeCount - 1 stabil nach einem Schlüssel.
+		 *
+		 * @param input   Die Knoten in ihrer bisherigen Ordnung, null für die
+		 *                Ordnung nach ID.
+		 * @param key     Der Schlüssel je Knoten, 0 bis keys - 1.
+		 * @param offsets Erhält den Beginn jedes Schlüssels in der Ausgabe.
+		 */
+		private int[] countingSort(int[] input, int[] key, int keys, int[] offsets) {
+			for (int node = 1; node < this.nodeCount; node++) {
+				offsets[key[node] + 1]++;
+			}
+			for (int k = 0; k < keys; k++) {
+				offsets[k + 1] += offsets[k];
+			}
+			final int[] fill = Arrays.copyOf(offsets, keys);
+			final int[] output = new int[this.nodeCount - 1];
+			for (int i = 0; i < this.nodeCount - 1; i++) {
+				final int node = input == null ? i + 1 : input[i];
+				output[fill[key[node]]++] = node;
+			}
+			return output;
+		}
+
+		/**
+		 * Liefert den Kindknoten eines Knotens zu einem Segment und legt ihn an,
+		 * falls es ihn noch nicht gibt.
+		 */
+		private int child(int parent, int segment) {
+			int mask = this.children.length - 1;
+			int slot = this.mix(parent * 31 + segment) & mask;
+			while (this.children[slot] != 0) {
+				final int node = this.children[slot] - 1;
+				if (this.parents[node] == parent && this.parts[node] == segment) {
+					return node;
+				}
+				slot = slot + 1 & mask;
+			}
+			if (this.nodeCount == this.parents.length) {
+				this.parents = Arrays.copyOf(this.parents, 2 * this.nodeCount);
+				this.parts = Arrays.copyOf(this.parts, 2 * this.nodeCount);
+				this.names = Arrays.copyOf(this.names, 2 * this.nodeCount);
+			}
+			final int node = this.nodeCount++;
+			this.parents[node] = parent;
+			this.parts[node] = segment;
+			this.children[slot] = node + 1;
+			if (2 * this.nodeCount > this.children.length) {
+				this.children = new int[2 * this.children.length];
+				mask = this.children.length - 1;
+				for (int n = 1; n < this.nodeCount; n++) {
+					slot = this.mix(this.parents[n] * 31 + this.parts[n]) & mask;
+					while (this.children[slot] != 0) {
+						slot = slot + 1 & mask;
+					}
+					this.children[slot] = n + 1;
+				}
+			}
+			return node;
+		}
+
+		/**
+		 * Liefert die ID des Segments name[from, to) und interniert es, falls
+		 * es noch nicht bekannt ist; nur neue Segmente werden als String
+		 * angelegt.
+		 */
+		private int segment(String name, int from, int to) {
+			int hash = 0;
+			for (int i = from; i < to; i++) {
+				hash = 31 * hash + name.charAt(i);
+			}
+			int mask = this.segmentTable.length - 1;
+			int slot = this.mix(hash) & mask;
+			while (this.segmentTable[slot] != 0) {
+				final int id = this.segmentTable[slot] - 1;
+				final String known = this.segments[id];
+				if (known.length() == to - from && name.regionMatches(from, known, 0, to - from)) {
+					return id;
+				}
+				slot = slot + 1 & mask;
+			}
+			if (this.segmentCount == this.segments.length) {
+				this.segments = Arrays.copyOf(this.segments, 2 * this.segmentCount);
+			}
+			final int id = this.segmentCount++;
+			this.segments[id] = name.substring(from, to);
+			this.segmentTable[slot] = id + 1;
+			if (2 * this.segmentCount > this.segmentTable.length) {
+				this.segmentTable = new int[2 * this.segmentTable.length];
+				mask = this.segmentTable.length - 1;
+				for (int s = 0; s < this.segmentCount; s++) {
+					slot = this.mix(this.segments[s].hashCode()) & mask;
+					while (this.segmentTable[slot] != 0) {
+						slot = slot + 1 & mask;
+					}
+					this.segmentTable[slot] = s + 1;
+				}
+			}
+			return id;
+		}
+
+		private int mix(int hash) {
+			final int h = hash * 0x9E3779B9;
+			return h ^ h >>> 16;
+		}
 	}
 }
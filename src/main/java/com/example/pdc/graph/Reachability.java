@@ -0,0 +1,159 @@
+package com.example.pdc.graph;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The transitive closure of a dependency graph, for rules that ask whether one
+ * package depends on another, directly or not. The graph is condensed into the
+ * DAG of its strongly connected components; each component keeps a bitset of
+ * the components it reaches and one of the components that reach it, both
+ * computed in one pass in topological order.
+ * <p>
+ * {@link #reaches(String, String)} then tests a single bit; listing the
+ * dependencies or dependents of a package takes time proportional to the
+ * result plus one scan of a bitset. The bitsets need {@code C²/4} bytes for
+ * {@code C} components, about 6 MB for 5000 packages.
+ * <p>
+ * A node reaches itself only over a cycle. The object is immutable and
+ * thread-safe; {@link DependencyGraph#reachability()} builds it once per graph
+ * on first use.
+ */
+public final class Reachability {
+	private final CompactGraph graph;
+	private final int[] component;
+	private final int[] memberOffsets;
+	private final int[] members;
+	private final int words;
+	private final long[] forward;
+	private final long[] backward;
+
+	/**
+	 * Builds the closure in O(V + E·C/64).
+	 *
+	 * @param graph The graph.
+	 */
+	public Reachability(CompactGraph graph) {
+		this.graph = Objects.requireNonNull(graph);
+		final int size = graph.size();
+		this.component = new int[size];
+		final int count = graph.components(this.component);
+		this.memberOffsets = new int[count + 1];
+		for (int node = 0; node < size; node++) {
+			this.memberOffsets[this.component[node] + 1]++;
+		}
+		for (int c = 0; c < count; c++) {
+			this.memberOffsets[c + 1] += this.memberOffsets[c];
+		}
+		final int[] fill = Arrays.copyOf(this.memberOffsets, count);
+		this.members = new int[size];
+		for (int node = 0; node < size; node++) {
+			this.members[fill[this.component[node]]++] = node;
+		}
+		this.words = (count + 63) >>> 6;
+		// Components are numbered in reverse topological order: the targets of a
+		// component come before it, its sources after it.
+		this.forward = this.closure(graph, 0, count, 1);
+		this.backward = this.closure(graph.reversed(), count - 1, -1, -1);
+	}
+
+	/**
+	 * Whether a node depends on another, directly or not, in O(log V) for the
+	 * lookup of the names and O(1) for the test.
+	 *
+	 * @param source The depending node.
+	 * @param target The node depended on.
+	 * @return False if either node is not in the graph.
+	 */
+	public boolean reaches(String source, String target) {
+		final int from = this.graph.id(source);
+		final int to = this.graph.id(target);
+		return from >= 0 && to >= 0 && this.bit(this.forward, this.component[from], this.component[to]);
+	}
+
+	/**
+	 * Returns all nodes a node depends on, directly or not.
+	 *
+	 * @param node The node.
+	 * @return The dependencies, sorted; empty if the node is not in the graph.
+	 */
+	public List<String> dependencies(String node) {
+		return this.nodes(this.forward, node);
+	}
+
+	/**
+	 * Returns all nodes that depend on a node, directly or not.
+	 *
+	 * @param node The node.
+	 * @return The dependents, sorted; empty if the node is not in the graph.
+	 */
+	public List<String> dependents(String node) {
+		return this.nodes(this.backward, node);
+	}
+
+	/**
+	 * Computes the bitsets of a closure, visiting the components so that each
+	 * edge leads to a component already done.
+	 */
+	private long[] closure(CompactGraph edges, int from, int to, int step) {
+		final int count = this.memberOffsets.length - 1;
+		final long[] rows = new long[count * this.words];
+		final int[] seen = new int[count];
+		Arrays.fill(seen, -1);
+		for (int c = from; c != to; c += step) {
+			final int row = c * this.words;
+			for (int m = this.memberOffsets[c]; m < this.memberOffsets[c + 1]; m++) {
+				final int node = this.members[m];
+				for (int edge = edges.first(node); edge < edges.last(node); edge++) {
+					final int next = this.component[edges.target(edge)];
+					rows[row + (next >>> 6)] |= 1L << next;
+					if (next != c && seen[next] != c) {
+						seen[next] = c;
+						final int done = next * this.words;
+						for (int w = 0; w < this.words; w++) {
+							rows[row + w] |= rows[done + w];
+						}
+					}
+				}
+			}
+		}
+		return rows;
+	}
+
+	private boolean bit(long[] rows, int row, int column) {
+		return (rows[row * this.words + (column >>> 6)] & 1L << column) != 0;
+	}
+
+	private List<String> nodes(long[] rows, String name) {
+		final int node = this.graph.id(name);
+		if (node < 0) {
+			return Collections.emptyList();
+		}
+		final int row = this.component[node] * this.words;
+		int size = 0;
+		for (int w = 0; w < this.words; w++) {
+			for (long bits = rows[row + w]; bits != 0; bits &= bits - 1) {
+				final int c = w << 6 | Long.numberOfTrailingZeros(bits);
+				size += this.memberOffsets[c + 1] - this.memberOffsets[c];
+			}
+		}
+		final int[] ids = new int[size];
+		int i = 0;
+		for (int w = 0; w < this.words; w++) {
+			for (long bits = rows[row + w]; bits != 0; bits &= bits - 1) {
+				final int c = w << 6 | Long.numberOfTrailingZeros(bits);
+				for (int m = this.memberOffsets[c]; m < this.memberOffsets[c + 1]; m++) {
+					ids[i++] = this.members[m];
+				}
+			}
+		}
+		Arrays.sort(ids);
+		final String[] names = new String[size];
+		for (int n = 0; n < size; n++) {
+			names[n] = this.graph.name(ids[n]);
+		}
+		return Collections.unmodifiableList(Arrays.asList(names));
+	}
+}
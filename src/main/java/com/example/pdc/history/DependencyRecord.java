@@ -0,0 +1,39 @@
+package com.example.pdc.history;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A row of a package dependency found in a run. Written in JDBC batches by the
+ * {@link HibernateHistory}; mapped for the schema and for queries.
+ */
+@Entity
+@IdClass(RowKey.class)
+@Table(name = "pdc_dependency", indexes = {
+		@Index(name = "pdc_dependency_source", columnList = "source, run_id"),
+		@Index(name = "pdc_dependency_target", columnList = "target, run_id") })
+final class DependencyRecord {
+	static final String INSERT = "insert into pdc_dependency (run_id, pos, source, target) values (?, ?, ?, ?)";
+
+	@Id
+	@Column(name = "run_id")
+	private long run;
+
+	@Id
+	@Column(name = "pos")
+	private int position;
+
+	@Column(name = "source", nullable = false, length = 1000)
+	private String source;
+
+	@Column(name = "target", nullable = false, length = 1000)
+	private String target;
+
+	DependencyRecord() {
+		// For Hibernate.
+	}
+}
@@ -0,0 +1,243 @@
+package com.example.pdc.history;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.hibernate.HibernateException;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+
+import com.example.pdc.ClassFile;
+import com.example.pdc.Dependency;
+import com.example.pdc.History;
+import com.example.pdc.Package;
+import com.example.pdc.Violation;
+import com.example.pdc.dependency.ReferenceDependencies;
+
+/**
+ * The history of all checks in a relational database, through Hibernate on a
+ * HikariCP pool. The schema is created and updated by Hibernate.
+ * <p>
+ * A run is stored in a single transaction of a stateless session: the run row
+ * first, then all packages, all dependencies and all violations, each table as
+ * JDBC batches of {@value #BATCH_SIZE} rows. Nothing is kept in a persistence
+ * context, so a run of any size takes a few round trips per table. For
+ * PostgreSQL, add {@code reWriteBatchedInserts=true} to the URL so that the
+ * driver sends each batch as one statement.
+ * <p>
+ * Embedded H2 (e.g. {@code jdbc:h2:mem:pdc;DB_CLOSE_DELAY=-1}) works the same.
+ */
+public final class HibernateHistory implements History {
+	private static final int BATCH_SIZE = 1000;
+
+	private final SessionFactory sessions;
+
+	/**
+	 * Creates a HibernateHistory on a database.
+	 *
+	 * @param url      The JDBC URL.
+	 * @param user     The database user.
+	 * @param password The password of the user.
+	 */
+	public HibernateHistory(String url, String user, String password) {
+		this(new Configuration()
+				.setProperty("hibernate.connection.provider_class",
+						"org.hibernate.hikaricp.internal.HikariCPConnectionProvider")
+				.setProperty("hibernate.connection.url", Objects.requireNonNull(url))
+				.setProperty("hibernate.connection.username", Objects.requireNonNull(user))
+				.setProperty("hibernate.connection.password", Objects.requireNonNull(password))
+				.setProperty("hibernate.hikari.maximumPoolSize", "4")
+				.setProperty("hibernate.hbm2ddl.auto", "update")
+				.setProperty("hibernate.jdbc.batch_size", String.valueOf(BATCH_SIZE))
+				.setProperty("hibernate.order_inserts", "true")
+				.addAnnotatedClass(RunRecord.class)
+				.addAnnotatedClass(PackageRecord.class)
+				.addAnnotatedClass(DependencyRecord.class)
+				.addAnnotatedClass(ViolationRecord.class)
+				.buildSessionFactory());
+	}
+
+	/**
+	 * Creates a HibernateHistory on a session factory that maps the record
+	 * classes of this package.
+	 *
+	 * @param sessions The session factory; closed with the history.
+	 */
+	public HibernateHistory(SessionFactory sessions) {
+		this.sessions = Objects.requireNonNull(sessions);
+	}
+
+	@Override
+	public long record(String artifact, Collection<Package> packages, Collection<Violation> violations)
+			throws IOException {
+		final List<ClassFile> classFiles = new ArrayList<>();
+		packages.forEach(pkg -> classFiles.addAll(pkg.classes()));
+		final Collection<Dependency> dependencies = new ReferenceDependencies(classFiles, packages).dependencies();
+		final MessageDigest digest = this.digest();
+		try (StatelessSession session = this.sessions.openStatelessSession()) {
+			final Transaction transaction = session.beginTransaction();
+			try {
+				final long run = (Long) session
+						.insert(new RunRecord(artifact, Instant.now(), packages.size(), violations.size()));
+				session.doWork(connection -> {
+					this.insertPackages(connection, run, packages);
+					this.insertDependencies(connection, run, dependencies);
+					this.insertViolations(connection, run, violations, digest);
+				});
+				transaction.commit();
+				return run;
+			} catch (RuntimeException e) {
+				if (transaction.isActive()) {
+					transaction.rollback();
+				}
+				throw e;
+			}
+		} catch (HibernateException e) {
+			throw new IOException("Cannot record run of " + artifact, e);
+		}
+	}
+
+	@Override
+	public SortedMap<Long, List<Violation>> violations(String location) throws IOException {
+		try (StatelessSession session = this.sessions.openStatelessSession()) {
+			final SortedMap<Long, List<Violation>> violations = new TreeMap<>();
+			for (final ViolationRecord row : session
+					.createQuery("from ViolationRecord v where v.location = :location order by v.run, v.position",
+							ViolationRecord.class)
+					.setParameter("location", this.clip(location, ViolationRecord.LOCATION_LENGTH))
+					.getResultList()) {
+				violations.computeIfAbsent(row.run(), run -> new ArrayList<>()).add(row.violation());
+			}
+			return violations;
+		} catch (HibernateException e) {
+			throw new IOException("Cannot read violations of " + location, e);
+		}
+	}
+
+	@Override
+	public List<Violation> newSince(long run) throws IOException {
+		try (StatelessSession session = this.sessions.openStatelessSession()) {
+			final List<Violation> violations = new ArrayList<>();
+			for (final ViolationRecord row : session.createQuery("from ViolationRecord v"
+					+ " where v.run = (select max(r.id) from RunRecord r where r.artifact ="
+					+ " (select a.artifact from RunRecord a where a.id = :run))"
+					+ " and not exists (select o.position from ViolationRecord o"
+					+ " where o.run = :run and o.fingerprint = v.fingerprint)"
+					+ " order by v.position", ViolationRecord.class).setParameter("run", run).getResultList()) {
+				violations.add(row.violation());
+			}
+			return violations;
+		} catch (HibernateException e) {
+			throw new IOException("Cannot read new violations since run " + run, e);
+		}
+	}
+
+	@Override
+	public void close() {
+		this.sessions.close();
+	}
+
+	private void insertPackages(Connection connection, long run, Collection<Package> packages) throws SQLException {
+		try (PreparedStatement insert = connection.prepareStatement(PackageRecord.INSERT)) {
+			int position = 0;
+			for (final Package pkg : packages) {
+				insert.setLong(1, run);
+				insert.setInt(2, position);
+				insert.setString(3, pkg.name());
+				insert.setInt(4, pkg.classes().size());
+				insert.setInt(5, pkg.abstractions().size());
+				this.add(insert, ++position);
+			}
+			insert.executeBatch();
+		}
+	}
+
+	private void insertDependencies(Connection connection, long run, Collection<Dependency> dependencies)
+			throws SQLException {
+		try (PreparedStatement insert = connection.prepareStatement(DependencyRecord.INSERT)) {
+			int position = 0;
+			for (final Dependency dependency : dependencies) {
+				insert.setLong(1, run);
+				insert.setInt(2, position);
+				insert.setString(3, dependency.source().name());
+				insert.setString(4, dependency.target().name());
+				this.add(insert, ++position);
+			}
+			insert.executeBatch();
+		}
+	}
+
+	private void insertViolations(Connection connection, long run, Collection<Violation> violations,
+			MessageDigest digest) throws SQLException {
+		try (PreparedStatement insert = connection.prepareStatement(ViolationRecord.INSERT)) {
+			int position = 0;
+			for (final Violation violation : violations) {
+				insert.setLong(1, run);
+				insert.setInt(2, position);
+				insert.setString(3, violation.priority().name());
+				insert.setString(4, this.clip(violation.location(), ViolationRecord.LOCATION_LENGTH));
+				insert.setString(5, this.clip(violation.message(), ViolationRecord.MESSAGE_LENGTH));
+				insert.setString(6, this.fingerprint(violation, digest));
+				this.add(insert, ++position);
+			}
+			insert.executeBatch();
+		}
+	}
+
+	/**
+	 * Adds the current row to the batch and sends the batch once it is full.
+	 */
+	private void add(PreparedStatement insert, int rows) throws SQLException {
+		insert.addBatch();
+		if (rows % BATCH_SIZE == 0) {
+			insert.executeBatch();
+		}
+	}
+
+	/**
+	 * Cuts a text to the length of its column, marking the cut with an
+	 * ellipsis; a surrogate pair is not split.
+	 */
+	private String clip(String text, int length) {
+		if (text.length() <= length) {
+			return text;
+		}
+		int end = length - 1;
+		if (Character.isHighSurrogate(text.charAt(end - 1))) {
+			end--;
+		}
+		return text.substring(0, end) + '…';
+	}
+
+	private String fingerprint(Violation violation, MessageDigest digest) {
+		final byte[] hash = digest.digest((violation.priority().name() + '\0' + violation.location() + '\0'
+				+ violation.message()).getBytes(StandardCharsets.UTF_8));
+		final StringBuilder hex = new StringBuilder(2 * hash.length);
+		for (final byte b : hash) {
+			hex.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	private MessageDigest digest() throws IOException {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException("SHA-256 not available", e);
+		}
+	}
+}
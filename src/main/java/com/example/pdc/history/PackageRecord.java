@@ -0,0 +1,41 @@
+package com.example.pdc.history;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A row of a package found in a run. Written in JDBC batches by the
+ * {@link HibernateHistory}; mapped for the schema and for queries.
+ */
+@Entity
+@IdClass(RowKey.class)
+@Table(name = "pdc_package", indexes = @Index(name = "pdc_package_name", columnList = "name, run_id"))
+final class PackageRecord {
+	static final String INSERT = "insert into pdc_package (run_id, pos, name, classes, abstractions)"
+			+ " values (?, ?, ?, ?, ?)";
+
+	@Id
+	@Column(name = "run_id")
+	private long run;
+
+	@Id
+	@Column(name = "pos")
+	private int position;
+
+	@Column(name = "name", nullable = false, length = 1000)
+	private String name;
+
+	@Column(name = "classes", nullable = false)
+	private int classes;
+
+	@Column(name = "abstractions", nullable = false)
+	private int abstractions;
+
+	PackageRecord() {
+		// For Hibernate.
+	}
+}
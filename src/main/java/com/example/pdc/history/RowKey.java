@@ -0,0 +1,35 @@
+package com.example.pdc.history;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * The key of the rows a run has many of: the run and the position within it.
+ */
+final class RowKey implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private long run;
+	private int position;
+
+	RowKey() {
+		// For Hibernate.
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		RowKey that = (RowKey) o;
+		return run == that.run && position == that.position;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(run, position);
+	}
+}
@@ -0,0 +1,47 @@
+package com.example.pdc.history;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * A row of a single recorded check of an artifact.
+ */
+@Entity
+@Table(name = "pdc_run", indexes = @Index(name = "pdc_run_artifact", columnList = "artifact, id"))
+final class RunRecord {
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pdc_run_seq")
+	@SequenceGenerator(name = "pdc_run_seq", sequenceName = "pdc_run_seq", allocationSize = 1)
+	private Long id;
+
+	@Column(name = "artifact", nullable = false, length = 1000)
+	private String artifact;
+
+	@Column(name = "started", nullable = false)
+	private Instant started;
+
+	@Column(name = "packages", nullable = false)
+	private int packages;
+
+	@Column(name = "violations", nullable = false)
+	private int violations;
+
+	RunRecord() {
+		// For Hibernate.
+	}
+
+	RunRecord(String artifact, Instant started, int packages, int violations) {
+		this.artifact = artifact;
+		this.started = started;
+		this.packages = packages;
+		this.violations = violations;
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.pdc.history;
+
+import com.example.pdc.Priority;
+import com.example.pdc.Violation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A row of a violation found in a run. The fingerprint identifies equal
+ * violations across runs. Written in JDBC batches by the
+ * {@link HibernateHistory}; mapped for the schema and for queries. Location
+ * and message are cut to the length of their columns before the insert, so
+ * the violation of a large cycle is kept, shortened, instead of failing the
+ * run; the fingerprint is taken from the whole violation.
+ */
+@Entity
+@IdClass(RowKey.class)
+@Table(name = "pdc_violation", indexes = {
+		@Index(name = "pdc_violation_location", columnList = "location, run_id"),
+		@Index(name = "pdc_violation_fingerprint", columnList = "run_id, fingerprint") })
+final class ViolationRecord {
+	static final String INSERT = "insert into pdc_violation (run_id, pos, priority, location, message,"
+			+ " fingerprint) values (?, ?, ?, ?, ?, ?)";
+	static final int LOCATION_LENGTH = 2000;
+	static final int MESSAGE_LENGTH = 8000;
+
+	@Id
+	@Column(name = "run_id")
+	private long run;
+
+	@Id
+	@Column(name = "pos")
+	private int position;
+
+	@Column(name = "priority", nullable = false, length = 16)
+	private String priority;
+
+	@Column(name = "location", nullable = false, length = LOCATION_LENGTH)
+	private String location;
+
+	@Column(name = "message", nullable = false, length = MESSAGE_LENGTH)
+	private String message;
+
+	@Column(name = "fingerprint", nullable = false, length = 64)
+	private String fingerprint;
+
+	ViolationRecord() {
+		// For Hibernate.
+	}
+
+	long run() {
+		return this.run;
+	}
+
+	Violation violation() {
+		return new Violation(this.location, this.message, Priority.valueOf(this.priority));
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.pdc.metric;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.example.pdc.App;
+import com.example.pdc.Graph;
+import com.example.pdc.Metrics;
+import com.example.pdc.Package;
+import com.example.pdc.PackageIndex;
+import com.example.pdc.Priority;
+import com.example.pdc.Violations;
+
+/**
+ * A decorator for an App that records each check in {@link Metrics}: the wall
+ * time and allocated bytes as phase {@value #PHASE} and the violations it
+ * added per priority. The phases of the stages below, such as scanning or
+ * cycle detection, are recorded by the decorated app and its rules.
+ */
+public final class MeteredApp implements App {
+	private static final String PHASE = "check";
+
+	private final App origin;
+	private final Metrics metrics;
+
+	public MeteredApp(App app, Metrics metrics) {
+		this.origin = Objects.requireNonNull(app);
+		this.metrics = Objects.requireNonNull(metrics);
+	}
+
+	@Override
+	public Violations check() throws IOException {
+		return this.check(new Violations());
+	}
+
+	@Override
+	public Violations check(Violations violations) throws IOException {
+		final Map<Priority, Integer> before = this.count(violations);
+		this.metrics.time(PHASE, () -> this.origin.check(violations));
+		this.count(violations).forEach((priority, count) -> {
+			for (int i = before.get(priority); i < count; i++) {
+				this.metrics.violation(priority);
+			}
+		});
+		return violations;
+	}
+
+	@Override
+	public Collection<Package> packages() {
+		return this.origin.packages();
+	}
+
+	@Override
+	public PackageIndex index() {
+		return this.origin.index();
+	}
+
+	@Override
+	public Graph dependencies() {
+		return this.origin.dependencies();
+	}
+
+	private Map<Priority, Integer> count(Violations violations) {
+		final Map<Priority, Integer> counts = new EnumMap<>(Priority.class);
+		for (final Priority priority : Priority.values()) {
+			counts.put(priority, violations.size(priority));
+		}
+		return counts;
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.pdc.metric;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Objects;
+
+import com.example.pdc.App;
+import com.example.pdc.Metrics;
+import com.example.pdc.Rule;
+import com.example.pdc.Violation;
+
+/**
+ * A decorator for a rule that records the wall time and allocated bytes of
+ * each check in {@link Metrics}, as phase {@code rule.<name>}.
+ */
+public final class MeteredRule implements Rule {
+	private final Rule origin;
+	private final String phase;
+	private final Metrics metrics;
+
+	/**
+	 * Creates a MeteredRule named after the class of the rule.
+	 *
+	 * @param rule    The rule to measure.
+	 * @param metrics The metrics to record to.
+	 */
+	public MeteredRule(Rule rule, Metrics metrics) {
+		this(rule, rule.getClass().getSimpleName(), metrics);
+	}
+
+	/**
+	 * Creates a MeteredRule.
+	 *
+	 * @param rule    The rule to measure.
+	 * @param name    The name of the rule in the metrics.
+	 * @param metrics The metrics to record to.
+	 */
+	public MeteredRule(Rule rule, String name, Metrics metrics) {
+		this.origin = Objects.requireNonNull(rule);
+		this.phase = "rule." + Objects.requireNonNull(name);
+		this.metrics = Objects.requireNonNull(metrics);
+	}
+
+	@Override
+	public Collection<Violation> check(App app) throws IOException {
+		return this.metrics.time(this.phase, () -> this.origin.check(app));
+	}
+}
@@ -0,0 +1,49 @@
+package com.example.pdc.metric;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import com.example.pdc.Metrics;
+
+/**
+ * Exposes {@link Metrics} as an MXBean, so JConsole or a JMX agent can read
+ * them, e.g. under the name {@code com.example.pdc:type=Metrics}.
+ */
+public final class MetricsBean implements MetricsMXBean {
+	private final Metrics metrics;
+
+	public MetricsBean(Metrics metrics) {
+		this.metrics = Objects.requireNonNull(metrics);
+	}
+
+	@Override
+	public Map<String, Long> getPhaseCalls() {
+		return this.metrics.calls();
+	}
+
+	@Override
+	public Map<String, Long> getPhaseMillis() {
+		final Map<String, Long> millis = new TreeMap<>();
+		this.metrics.nanos().forEach((phase, nanos) -> millis.put(phase, TimeUnit.NANOSECONDS.toMillis(nanos)));
+		return millis;
+	}
+
+	@Override
+	public Map<String, Long> getPhaseAllocatedBytes() {
+		return this.metrics.bytes();
+	}
+
+	@Override
+	public Map<String, Long> getCounts() {
+		return this.metrics.counters();
+	}
+
+	@Override
+	public Map<String, Long> getViolations() {
+		final Map<String, Long> violations = new TreeMap<>();
+		this.metrics.violations().forEach((priority, count) -> violations.put(priority.name(), count));
+		return violations;
+	}
+}
@@ -0,0 +1,35 @@
+package com.example.pdc.metric;
+
+import java.util.Map;
+
+/**
+ * The management interface of the {@link com.example.pdc.Metrics}, as
+ * registered by {@link MetricsBean}. All values are totals.
+ */
+public interface MetricsMXBean {
+
+	/**
+	 * The calls per phase.
+	 */
+	Map<String, Long> getPhaseCalls();
+
+	/**
+	 * The wall time in milliseconds per phase.
+	 */
+	Map<String, Long> getPhaseMillis();
+
+	/**
+	 * The allocated bytes per phase.
+	 */
+	Map<String, Long> getPhaseAllocatedBytes();
+
+	/**
+	 * The counts of entries, classes, packages and edges checked.
+	 */
+	Map<String, Long> getCounts();
+
+	/**
+	 * The violations found per priority.
+	 */
+	Map<String, Long> getViolations();
+}
@@ -0,0 +1,68 @@
+package com.example.pdc.metric;
+
+import java.util.Map;
+import java.util.Objects;
+
+import com.example.pdc.Metrics;
+import com.example.pdc.Priority;
+
+/**
+ * {@link Metrics} in the Prometheus text exposition format, for scrapers that
+ * pull them over HTTP:
+ *
+ * <pre>
+ * pdc_phase_seconds_total{phase="rule.SingularNamingRule"} 0.012
+ * pdc_count_total{name="packages"} 141
+ * pdc_violations_total{priority="HIGH"} 3
+ * </pre>
+ */
+public final class MetricsText {
+	private final Metrics metrics;
+
+	public MetricsText(Metrics metrics) {
+		this.metrics = Objects.requireNonNull(metrics);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder text = new StringBuilder();
+		this.header(text, "pdc_phase_calls_total", "Calls per phase.");
+		this.metrics.calls().forEach((phase, calls) -> this.sample(text, "pdc_phase_calls_total", "phase", phase,
+				Long.toString(calls)));
+		this.header(text, "pdc_phase_seconds_total", "Wall time per phase.");
+		this.metrics.nanos().forEach((phase, nanos) -> this.sample(text, "pdc_phase_seconds_total", "phase", phase,
+				Double.toString(nanos / 1e9)));
+		this.header(text, "pdc_phase_allocated_bytes_total", "Bytes allocated by the threads of a phase.");
+		this.metrics.bytes().forEach((phase, bytes) -> this.sample(text, "pdc_phase_allocated_bytes_total", "phase",
+				phase, Long.toString(bytes)));
+		this.header(text, "pdc_count_total", "Entries, classes, packages and edges checked.");
+		this.metrics.counters().forEach(
+				(name, count) -> this.sample(text, "pdc_count_total", "name", name, Long.toString(count)));
+		this.header(text, "pdc_violations_total", "Violations found per priority.");
+		for (final Map.Entry<Priority, Long> entry : this.metrics.violations().entrySet()) {
+			this.sample(text, "pdc_violations_total", "priority", entry.getKey().name(),
+					Long.toString(entry.getValue()));
+		}
+		return text.toString();
+	}
+
+	private void header(StringBuilder text, String metric, String help) {
+		text.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+		text.append("# TYPE ").append(metric).append(" counter\n");
+	}
+
+	private void sample(StringBuilder text, String metric, String label, String value, String sample) {
+		text.append(metric).append('{').append(label).append("=\"");
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if (c == '\\' || c == '"') {
+				text.append('\\').append(c);
+			} else if (c == '\n') {
+				text.append("\\n");
+			} else {
+				text.append(c);
+			}
+		}
+		text.append("\"} ").append(sample).append('\n');
+	}
+}
@@ -0,0 +1,42 @@
+package com.example.pdc.pkg;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.example.pdc.ClassFile;
+import com.example.pdc.Package;
+
+/**
+ * The packages of a codebase, grouped from its parsed class files. All
+ * packages share one {@link InheritanceIndex} over the class files.
+ */
+public final class ClassFilePackages {
+	private final Collection<ClassFile> classFiles;
+
+	public ClassFilePackages(Collection<ClassFile> classFiles) {
+		this.classFiles = Objects.requireNonNull(classFiles);
+	}
+
+	/**
+	 * Groups the class files by package name.
+	 *
+	 * @return A collection of packages.
+	 */
+	public Collection<Package> packages() {
+		final Map<String, Set<ClassFile>> packageClasses = new LinkedHashMap<>();
+		for (final ClassFile classFile : this.classFiles) {
+			packageClasses.computeIfAbsent(classFile.packageName(), k -> new HashSet<>()).add(classFile);
+		}
+		final InheritanceIndex inheritance = new InheritanceIndex(this.classFiles);
+		return packageClasses.entrySet().stream()
+				.map(entry -> new SimplePackage(entry.getKey(), entry.getValue(),
+						entry.getValue().stream().filter(ClassFile::isAbstraction).collect(Collectors.toSet()),
+						inheritance))
+				.collect(Collectors.toList());
+	}
+}
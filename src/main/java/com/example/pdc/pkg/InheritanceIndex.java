@@ -0,0 +1,128 @@
+package com.example.pdc.pkg;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.example.pdc.ClassFile;
+
+/**
+ * An index from each supertype to its direct subtypes: the classes that extend
+ * it and the classes and interfaces that implement or extend it as an
+ * interface. It is built once per analysis over all class files, keyed by fully
+ * qualified names, so types of the same simple name in different packages are
+ * told apart. It is immutable and thread-safe.
+ * <p>
+ * The subtypes of each supertype are sorted by package and name, and each
+ * package of them is a range of that list, kept in a map by package name. The
+ * package name of each class is computed once, while the index is built.
+ */
+public final class InheritanceIndex {
+	private static final Comparator<ClassFile> BY_NAME = Comparator.comparing(ClassFile::name);
+
+	private final Map<String, List<ClassFile>> subtypes;
+	private final Map<String, Map<String, List<ClassFile>>> byPackage;
+
+	/**
+	 * Builds the index in one pass over the class files.
+	 *
+	 * @param classFiles All class files of the analysis.
+	 */
+	public InheritanceIndex(Collection<ClassFile> classFiles) {
+		final Map<String, Map<String, List<ClassFile>>> grouped = new HashMap<>();
+		for (final ClassFile classFile : Objects.requireNonNull(classFiles)) {
+			// Each call of packageName() builds a new string.
+			final String pkg = classFile.packageName();
+			if (!classFile.superName().isEmpty()) {
+				this.add(grouped, classFile.superName(), pkg, classFile);
+			}
+			for (final String name : classFile.interfaces()) {
+				this.add(grouped, name, pkg, classFile);
+			}
+		}
+		this.subtypes = new HashMap<>();
+		this.byPackage = new HashMap<>();
+		for (final Map.Entry<String, Map<String, List<ClassFile>>> entry : grouped.entrySet()) {
+			final Map<String, List<ClassFile>> packages = entry.getValue();
+			final List<String> names = new ArrayList<>(packages.keySet());
+			Collections.sort(names);
+			final List<ClassFile> sorted = new ArrayList<>();
+			for (final String name : names) {
+				final List<ClassFile> subtypes = packages.get(name);
+				subtypes.sort(BY_NAME);
+				sorted.addAll(subtypes);
+			}
+			final List<ClassFile> all = Collections.unmodifiableList(sorted);
+			final Map<String, List<ClassFile>> ranges = new HashMap<>();
+			int start = 0;
+			for (final String name : names) {
+				final int end = start + packages.get(name).size();
+				ranges.put(name, all.subList(start, end));
+				start = end;
+			}
+			this.subtypes.put(entry.getKey(), all);
+			this.byPackage.put(entry.getKey(), ranges);
+		}
+	}
+
+	/**
+	 * Returns the direct subtypes of a type, in O(1).
+	 *
+	 * @param supertype The fully qualified name of the type.
+	 * @return The direct subtypes, sorted by package and name.
+	 */
+	public List<ClassFile> subtypes(String supertype) {
+		return this.subtypes.getOrDefault(supertype, Collections.emptyList());
+	}
+
+	/**
+	 * Returns the direct subtypes of a type within one package, in O(1).
+	 *
+	 * @param supertype The fully qualified name of the type.
+	 * @param pkg       The package name, empty for the default package.
+	 * @return The direct subtypes in the package, sorted by name.
+	 */
+	public List<ClassFile> subtypes(String supertype, String pkg) {
+		return this.byPackage.getOrDefault(supertype, Collections.emptyMap()).getOrDefault(pkg,
+				Collections.emptyList());
+	}
+
+	/**
+	 * Returns all subtypes of a type, direct or not, each once, in time
+	 * proportional to the subtype relations among them.
+	 *
+	 * @param supertype The fully qualified name of the type.
+	 * @return The subtypes in breadth-first order, the direct ones first.
+	 */
+	public List<ClassFile> allSubtypes(String supertype) {
+		final List<ClassFile> all = new ArrayList<>();
+		final Set<String> seen = new HashSet<>();
+		final Deque<String> open = new ArrayDeque<>();
+		open.add(supertype);
+		seen.add(supertype);
+		while (!open.isEmpty()) {
+			for (final ClassFile subtype : this.subtypes(open.poll())) {
+				if (seen.add(subtype.name())) {
+					all.add(subtype);
+					open.add(subtype.name());
+				}
+			}
+		}
+		return all;
+	}
+
+	private void add(Map<String, Map<String, List<ClassFile>>> grouped, String supertype, String pkg,
+			ClassFile classFile) {
+		grouped.computeIfAbsent(supertype, k -> new HashMap<>()).computeIfAbsent(pkg, k -> new ArrayList<>())
+				.add(classFile);
+	}
+}
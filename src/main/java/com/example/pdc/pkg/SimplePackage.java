@@ -1,25 +1,49 @@
 package com.example.pdc.pkg;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+import com.example.pdc.ClassFile;
 import com.example.pdc.Package;
 
 /**
- * An immutable object that represents a simple, non-recursive package.
+ * An immutable object that represents a simple, non-recursive package. Its
+ * realizations are looked up in an {@link InheritanceIndex}, usually the one of
+ * the whole analysis.
  */
 public final class SimplePackage implements Package {
 	private final String name;
-	private final Set<Class<?>> classes;
-	private final Set<Class<?>> abstractions;
+	private final Set<ClassFile> classes;
+	private final Set<ClassFile> abstractions;
+	private final InheritanceIndex inheritance;
 
-	public SimplePackage(String name, Set<Class<?>> classes, Set<Class<?>> abstractions) {
+	/**
+	 * Creates a SimplePackage whose realizations are looked up among its own
+	 * classes.
+	 */
+	public SimplePackage(String name, Set<ClassFile> classes, Set<ClassFile> abstractions) {
+		this(name, classes, abstractions, new InheritanceIndex(classes));
+	}
+
+	/**
+	 * Creates a SimplePackage.
+	 *
+	 * @param name         The package name.
+	 * @param classes      The classes of the package.
+	 * @param abstractions The abstractions among the classes.
+	 * @param inheritance  The index of the subtypes, containing at least the
+	 *                     classes of the package.
+	 */
+	public SimplePackage(String name, Set<ClassFile> classes, Set<ClassFile> abstractions,
+			InheritanceIndex inheritance) {
 		this.name = Objects.requireNonNull(name);
 		this.classes = Objects.requireNonNull(classes);
 		this.abstractions = Objects.requireNonNull(abstractions);
+		this.inheritance = Objects.requireNonNull(inheritance);
 	}
 
 	@Override
@@ -28,23 +52,29 @@ public final class SimplePackage implements Package {
 	}
 
 	@Override
-	public Collection<Class<?>> classes() {
+	public Collection<ClassFile> classes() {
 		return Collections.unmodifiableSet(this.classes);
 	}
 
 	@Override
-	public Collection<Class<?>> abstractions() {
+	public Collection<ClassFile> abstractions() {
 		return Collections.unmodifiableSet(this.abstractions);
 	}
 
+	/**
+	 * Returns the realizations from the index: the direct subtypes of the
+	 * abstraction in this package that are neither interfaces nor abstract
+	 * classes. Takes a map lookup plus time linear in those subtypes.
+	 */
 	@Override
-	public Collection<Class<?>> realizations(String abstractionName) {
-		return this.classes.stream()
-				.filter(c -> !c.isInterface() && !java.lang.reflect.Modifier.isAbstract(c.getModifiers())
-						&& c.getSuperclass() != null && c.getSuperclass().getSimpleName().equals(abstractionName)
-						|| java.util.Arrays.stream(c.getInterfaces())
-								.anyMatch(i -> i.getSimpleName().equals(abstractionName)))
-				.collect(Collectors.toList());
+	public Collection<ClassFile> realizations(String abstractionName) {
+		final List<ClassFile> realizations = new ArrayList<>();
+		for (final ClassFile subtype : this.inheritance.subtypes(abstractionName, this.name)) {
+			if (!subtype.isAbstraction()) {
+				realizations.add(subtype);
+			}
+		}
+		return realizations;
 	}
 
 	@Override
@@ -2,41 +2,53 @@ package com.example.pdc.rule;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.ToIntBiFunction;
 
 /**
  * Ein Objekt, das für die Generierung von detaillierten Lösungsvorschlägen für
- * zirkuläre Abhängigkeiten zuständig ist.
+ * zirkuläre Abhängigkeiten zuständig ist. Vorgeschlagen werden die konkreten
+ * Abhängigkeiten, deren Entfernen die Zyklen einer Zusammenhangskomponente
+ * auflöst, mit möglichst kleinem Gesamtgewicht (siehe
+ * {@link com.example.pdc.graph.DependencyGraph#feedbackArcs(List, ToIntBiFunction)}).
  */
 public final class CycleSolutionGenerator {
 
-	private final List<String> cyclePath;
+	// Höchstzahl der einzeln aufgeführten Abhängigkeiten
+	private static final int SHOWN = 10;
 
-	public CycleSolutionGenerator(List<String> path) {
+	private final List<String> cyclePath;
+	private final List<String[]> cuts;
+	private final ToIntBiFunction<String, String> weight;
+
+	/**
+	 * @param path   Ein Zyklus der Komponente, Anfang gleich Ende.
+	 * @param cuts   Die zu entfernenden Abhängigkeiten, leichteste zuerst.
+	 * @param weight Das Gewicht einer Abhängigkeit.
+	 */
+	public CycleSolutionGenerator(List<String> path, List<String[]> cuts, ToIntBiFunction<String, String> weight) {
 		this.cyclePath = Objects.requireNonNull(path);
+		this.cuts = Objects.requireNonNull(cuts);
+		this.weight = Objects.requireNonNull(weight);
 	}
 
 	public String getDescription() {
-		return "Zirkuläre Abhängigkeit erkannt: " + String.join(" → ", this.cyclePath) + "\n  Lösungen:\n  1. "
-				+ this.solution1() + "\n  2. " + this.solution2() + "\n  3. " + this.solution3();
-	}
-
-	private String solution1() {
-		// Beispiel: Extrahiere eine gemeinsame Schnittstelle
-		String pkg1 = this.cyclePath.get(0);
-		String pkg2 = this.cyclePath.get(1);
-		return String.format("Extrahieren Sie eine gemeinsame Schnittstelle aus %s und %s.", pkg1, pkg2);
-	}
-
-	private String solution2() {
-		// Beispiel: Verwende Dependency Injection
-		String pkg1 = this.cyclePath.get(0);
-		String pkg2 = this.cyclePath.get(1);
-		return String.format("Nutzen Sie Dependency Injection, um %s von der direkten Abhängigkeit zu %s zu lösen.",
-				pkg1, pkg2);
-	}
-
-	private String solution3() {
-		// Beispiel: Restrukturiere Pakete
-		return "Restrukturieren Sie die Pakete nach Domänenkontexten, um die Abhängigkeiten aufzulösen.";
+		long total = 0;
+		for (final String[] cut : this.cuts) {
+			total += this.weight.applyAsInt(cut[0], cut[1]);
+		}
+		final StringBuilder description = new StringBuilder("Zirkuläre Abhängigkeit erkannt: ")
+				.append(String.join(" → ", this.cyclePath)).append("\n  Lösung: Entfernen Sie ")
+				.append(this.cuts.size() == 1 ? "diese Abhängigkeit" : "diese " + this.cuts.size() + " Abhängigkeiten")
+				.append(" (Gesamtgewicht ").append(total).append("):");
+		for (int i = 0; i < Math.min(SHOWN, this.cuts.size()); i++) {
+			final String[] cut = this.cuts.get(i);
+			description.append("\n  ").append(i + 1).append(". ").append(cut[0]).append(" → ").append(cut[1])
+					.append(" (Gewicht ").append(this.weight.applyAsInt(cut[0], cut[1])).append(')');
+		}
+		if (this.cuts.size() > SHOWN) {
+			description.append("\n  … und ").append(this.cuts.size() - SHOWN).append(" weitere");
+		}
+		return description.append("\n  Kehren Sie jede dieser Abhängigkeiten um, etwa mit einer Schnittstelle im")
+				.append(" abhängigen Paket, oder verschieben Sie die referenzierten Klassen.").toString();
 	}
 }
@@ -0,0 +1,295 @@
+package com.example.pdc.rule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.example.pdc.App;
+import com.example.pdc.ClassFile;
+import com.example.pdc.Package;
+import com.example.pdc.PackageIndex;
+import com.example.pdc.Priority;
+import com.example.pdc.Rule;
+import com.example.pdc.Violation;
+
+/**
+ * A rule that checks the package dependencies against a layering policy. The
+ * policy is a list of lines, each allowing or forbidding the dependencies from
+ * the packages matching one glob on the packages matching another:
+ *
+ * <pre>
+ * # The implementation packages must not know the user interface.
+ * allow  com.example.pdc.user.** -&gt; com.example.pdc.**
+ * forbid com.example.pdc.*.**    -&gt; com.example.pdc.user.**
+ * </pre>
+ *
+ * In a glob, {@code *} matches one segment of a package name and {@code **}
+ * any number of segments, including none. The first line that matches a
+ * dependency decides; a dependency no line matches is allowed.
+ * <p>
+ * The source globs and the target globs are each compiled once into a trie of
+ * segments, which is run as an automaton over the segments of a package name.
+ * It yields the set of lines matching the package as a bitset. A check matches
+ * every package at most once as source and once as target; each dependency
+ * then costs only the intersection of two bitsets, however many lines the
+ * policy has. The dependencies are the edges of the app's dependency graph
+ * between analyzed packages; only for a forbidden one are the classes of the
+ * package searched for a reference to name as an example.
+ */
+public final class LayeringRule implements Rule {
+	private static final String ARROW = "->";
+
+	private final List<String> lines;
+	private final boolean[] allowed;
+	private final Globs sources;
+	private final Globs targets;
+	private final Priority priority;
+
+	/**
+	 * Creates a LayeringRule that reports forbidden dependencies as
+	 * {@link Priority#HIGH}.
+	 *
+	 * @param policy The lines of the policy; empty lines and lines starting
+	 *               with {@code #} are skipped.
+	 */
+	public LayeringRule(List<String> policy) {
+		this(policy, Priority.HIGH);
+	}
+
+	/**
+	 * Creates a LayeringRule.
+	 *
+	 * @param policy   The lines of the policy; empty lines and lines starting
+	 *                 with {@code #} are skipped.
+	 * @param priority The priority of a forbidden dependency.
+	 * @throws IllegalArgumentException If a line is not of the form
+	 *                                  {@code allow|forbid GLOB -> GLOB}.
+	 */
+	public LayeringRule(List<String> policy, Priority priority) {
+		this.lines = new ArrayList<>();
+		final List<Boolean> decisions = new ArrayList<>();
+		this.sources = new Globs();
+		this.targets = new Globs();
+		for (int number = 1; number <= policy.size(); number++) {
+			final String line = policy.get(number - 1).trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			final String[] parts = line.split("\\s+");
+			if (parts.length != 4 || !ARROW.equals(parts[2]) || !"allow".equals(parts[0])
+					&& !"forbid".equals(parts[0])) {
+				throw new IllegalArgumentException(
+						"Line " + number + " is not 'allow|forbid GLOB -> GLOB': " + line);
+			}
+			final int id = this.lines.size();
+			this.sources.add(parts[1], id, number);
+			this.targets.add(parts[3], id, number);
+			this.lines.add(line);
+			decisions.add("allow".equals(parts[0]));
+		}
+		this.allowed = new boolean[this.lines.size()];
+		for (int id = 0; id < this.allowed.length; id++) {
+			this.allowed[id] = decisions.get(id);
+		}
+		this.priority = Objects.requireNonNull(priority);
+	}
+
+	@Override
+	public Collection<Violation> check(App app) {
+		final PackageIndex index = app.index();
+		final int words = (this.lines.size() + 63) >>> 6;
+		final Set<String> checked = new HashSet<>();
+		index.packages().forEach(pkg -> checked.add(pkg.name()));
+		final Map<String, long[]> sourceLines = new HashMap<>();
+		final Map<String, long[]> targetLines = new HashMap<>();
+		// The forbidden dependencies of each package, with the line forbidding them.
+		final Map<String, Map<String, Integer>> forbidden = new TreeMap<>();
+		for (final String[] edge : app.dependencies().edges()) {
+			final String source = edge[0];
+			final String target = edge[1];
+			if (source.equals(target) || !checked.contains(source) || !index.contains(target)) {
+				continue;
+			}
+			final long[] matched = sourceLines.computeIfAbsent(source, name -> this.sources.match(name, words));
+			if (this.isEmpty(matched)) {
+				continue;
+			}
+			final int line = this.first(matched,
+					targetLines.computeIfAbsent(target, name -> this.targets.match(name, words)));
+			if (line >= 0 && !this.allowed[line]) {
+				forbidden.computeIfAbsent(source, name -> new TreeMap<>()).put(target, line);
+			}
+		}
+		final Collection<Violation> violations = new ArrayList<>();
+		forbidden.forEach((source, targets) -> {
+			final Map<String, String> examples = this.examples(index.find(source).get(), targets.keySet());
+			targets.forEach((target, line) -> violations.add(new Violation(source,
+					String.format("Dependency on '%s' is forbidden by '%s', e.g. %s.", target,
+							this.lines.get(line), examples.getOrDefault(target, target)),
+					this.priority)));
+		});
+		return violations;
+	}
+
+	/**
+	 * Returns the first class reference, by class name, behind each of some
+	 * dependencies of a package.
+	 */
+	private Map<String, String> examples(Package pkg, Set<String> targets) {
+		final Map<String, String> examples = new HashMap<>();
+		final List<ClassFile> classes = new ArrayList<>(pkg.classes());
+		classes.sort(Comparator.comparing(ClassFile::name));
+		for (final ClassFile classFile : classes) {
+			for (final String reference : classFile.references()) {
+				final int dot = reference.lastIndexOf('.');
+				final String target = dot < 0 ? "" : reference.substring(0, dot);
+				if (targets.contains(target) && !examples.containsKey(target)) {
+					examples.put(target, classFile.name() + " → " + reference);
+				}
+			}
+		}
+		return examples;
+	}
+
+	private boolean isEmpty(long[] bits) {
+		for (final long word : bits) {
+			if (word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the first line in both sets, or -1.
+	 */
+	private int first(long[] left, long[] right) {
+		for (int w = 0; w < left.length; w++) {
+			final long common = left[w] & right[w];
+			if (common != 0) {
+				return w << 6 | Long.numberOfTrailingZeros(common);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Globs over package names compiled into one trie of segments. Each node
+	 * has a child per literal segment, one for {@code *} and one for
+	 * {@code **}; a {@code **} node loops on any segment.
+	 */
+	private static final class Globs {
+		private final List<Node> nodes = new ArrayList<>();
+		private final Node root = this.node(false);
+
+		void add(String glob, int id, int number) {
+			Node node = this.root;
+			if (!glob.isEmpty()) {
+				for (final String segment : glob.split("\\.", -1)) {
+					if (segment.isEmpty() || !"*".equals(segment) && !"**".equals(segment)
+							&& segment.indexOf('*') >= 0) {
+						throw new IllegalArgumentException("Line " + number + " has an invalid glob: " + glob);
+					}
+					if ("**".equals(segment)) {
+						if (node.rest == null) {
+							node.rest = this.node(true);
+						}
+						node = node.rest;
+					} else if ("*".equals(segment)) {
+						if (node.any == null) {
+							node.any = this.node(false);
+						}
+						node = node.any;
+					} else {
+						node = node.literals.computeIfAbsent(segment, k -> this.node(false));
+					}
+				}
+			}
+			node.accepts.add(id);
+		}
+
+		/**
+		 * Runs the trie as an automaton over the segments of a package name.
+		 *
+		 * @return The lines whose glob matches, as a bitset.
+		 */
+		long[] match(String name, int words) {
+			final int[] stamps = new int[this.nodes.size()];
+			List<Node> active = new ArrayList<>();
+			this.enter(this.root, active, stamps, 1);
+			int step = 1;
+			int start = 0;
+			while (start <= name.length() && !active.isEmpty() && !name.isEmpty()) {
+				int end = name.indexOf('.', start);
+				if (end < 0) {
+					end = name.length();
+				}
+				final String segment = name.substring(start, end);
+				final List<Node> next = new ArrayList<>();
+				step++;
+				for (final Node node : active) {
+					final Node literal = node.literals.get(segment);
+					if (literal != null) {
+						this.enter(literal, next, stamps, step);
+					}
+					if (node.any != null) {
+						this.enter(node.any, next, stamps, step);
+					}
+					if (node.loops) {
+						this.enter(node, next, stamps, step);
+					}
+				}
+				active = next;
+				start = end + 1;
+			}
+			final long[] bits = new long[words];
+			for (final Node node : active) {
+				for (final int id : node.accepts) {
+					bits[id >>> 6] |= 1L << id;
+				}
+			}
+			return bits;
+		}
+
+		/**
+		 * Activates a node and, as {@code **} matches no segment as well, its
+		 * {@code **} child.
+		 */
+		private void enter(Node node, List<Node> active, int[] stamps, int step) {
+			for (Node entered = node; entered != null && stamps[entered.id] != step; entered = entered.rest) {
+				stamps[entered.id] = step;
+				active.add(entered);
+			}
+		}
+
+		private Node node(boolean loops) {
+			final Node node = new Node(this.nodes.size(), loops);
+			this.nodes.add(node);
+			return node;
+		}
+	}
+
+	/**
+	 * A node of the segment trie.
+	 */
+	private static final class Node {
+		private final int id;
+		private final boolean loops;
+		private final Map<String, Node> literals = new HashMap<>();
+		private final List<Integer> accepts = new ArrayList<>();
+		private Node any;
+		private Node rest;
+
+		Node(int id, boolean loops) {
+			this.id = id;
+			this.loops = loops;
+		}
+	}
+}
@@ -0,0 +1,211 @@
+package com.example.pdc.rule;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import com.example.pdc.App;
+import com.example.pdc.ClassFile;
+import com.example.pdc.Graph;
+import com.example.pdc.Package;
+import com.example.pdc.PackageIndex;
+import com.example.pdc.Rule;
+import com.example.pdc.Violation;
+import com.example.pdc.Violations;
+
+/**
+ * A decorator for a rule that checks each package only if it has changed
+ * since the rule last checked it, and takes the results of all other
+ * packages from {@link RuleResults}. The results are keyed by the rule's class
+ * name, the rule version and a fingerprint of the package: the SHA-256 of the
+ * package name and of the names and contents of its classes and
+ * abstractions. With {@link Scope#SUBPACKAGES}, the names of the direct
+ * subpackages are part of the fingerprint as well.
+ * <p>
+ * The rule sees an {@link App} whose index lists only the changed packages, see
+ * {@link PackageIndex#focus(Collection)}, and must report each violation at
+ * the package it checked. If it reports elsewhere, nothing is memoized for the
+ * check.
+ */
+public final class MemoizedRule implements Rule {
+
+	/**
+	 * What the results of a rule for a package depend on.
+	 */
+	public enum Scope {
+		/** Only the classes of the package. */
+		PACKAGE,
+		/** The classes of the package and which direct subpackages exist. */
+		SUBPACKAGES
+	}
+
+	private final Rule origin;
+	private final String id;
+	private final Scope scope;
+	private final RuleResults results;
+
+	/**
+	 * Creates a MemoizedRule.
+	 *
+	 * @param rule    The rule to memoize.
+	 * @param version The version of the rule; increase it whenever the rule
+	 *                changes what it reports.
+	 * @param scope   What the results of the rule for a package depend on.
+	 * @param results The store of the results.
+	 */
+	public MemoizedRule(Rule rule, int version, Scope scope, RuleResults results) {
+		this.origin = Objects.requireNonNull(rule);
+		this.id = rule.getClass().getName() + ':' + version + ':';
+		this.scope = Objects.requireNonNull(scope);
+		this.results = Objects.requireNonNull(results);
+	}
+
+	@Override
+	public Collection<Violation> check(App app) throws IOException {
+		final PackageIndex index = app.index();
+		final MessageDigest digest = this.digest();
+		final Collection<Violation> violations = new ArrayList<>();
+		final Map<String, String> changed = new HashMap<>();
+		final List<Package> focus = new ArrayList<>();
+		for (final Package pkg : index.packages()) {
+			final String key = this.id + this.fingerprint(pkg, index, digest);
+			final Optional<List<Violation>> known = this.results.find(key);
+			if (known.isPresent()) {
+				violations.addAll(known.get());
+			} else {
+				changed.put(pkg.name(), key);
+				focus.add(pkg);
+			}
+		}
+		if (focus.isEmpty()) {
+			return violations;
+		}
+		final Collection<Violation> found = this.origin.check(new Focused(app, index.focus(focus)));
+		final Map<String, List<Violation>> byPackage = new HashMap<>();
+		changed.keySet().forEach(name -> byPackage.put(name, new ArrayList<>()));
+		for (final Violation violation : found) {
+			final List<Violation> located = byPackage.get(violation.location());
+			if (located == null) {
+				// Reported elsewhere: the results cannot be told apart by package.
+				violations.addAll(found);
+				return violations;
+			}
+			located.add(violation);
+		}
+		byPackage.forEach((name, located) -> this.results.put(changed.get(name), located));
+		violations.addAll(found);
+		return violations;
+	}
+
+	private String fingerprint(Package pkg, PackageIndex index, MessageDigest digest) {
+		digest.reset();
+		this.update(digest, pkg.name());
+		this.update(digest, "classes");
+		for (final ClassFile classFile : this.sorted(pkg.classes())) {
+			this.update(digest, classFile);
+		}
+		this.update(digest, "abstractions");
+		for (final ClassFile classFile : this.sorted(pkg.abstractions())) {
+			this.update(digest, classFile);
+		}
+		if (this.scope == Scope.SUBPACKAGES) {
+			this.update(digest, "subpackages");
+			for (final String child : index.children(pkg.name())) {
+				if (index.contains(child)) {
+					this.update(digest, child);
+				}
+			}
+		}
+		final byte[] hash = digest.digest();
+		final StringBuilder hex = new StringBuilder(2 * hash.length);
+		for (final byte b : hash) {
+			hex.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	/**
+	 * Adds everything a rule can see of a class file.
+	 */
+	private void update(MessageDigest digest, ClassFile classFile) {
+		this.update(digest, classFile.name());
+		this.update(digest, classFile.isAbstraction() ? "abstract" : "concrete");
+		this.update(digest, classFile.superName());
+		for (final String name : classFile.interfaces()) {
+			this.update(digest, name);
+		}
+		this.update(digest, "references");
+		for (final String name : new TreeSet<>(classFile.references())) {
+			this.update(digest, name);
+		}
+	}
+
+	private void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private List<ClassFile> sorted(Collection<ClassFile> classFiles) {
+		final List<ClassFile> sorted = new ArrayList<>(classFiles);
+		sorted.sort(Comparator.comparing(ClassFile::name));
+		return sorted;
+	}
+
+	private MessageDigest digest() throws IOException {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException("SHA-256 not available", e);
+		}
+	}
+
+	/**
+	 * The app as the memoized rule sees it: the packages and the index list
+	 * only the packages to check; a check is one of the whole app, as without
+	 * the decorator.
+	 */
+	private static final class Focused implements App {
+		private final App origin;
+		private final PackageIndex index;
+
+		Focused(App origin, PackageIndex index) {
+			this.origin = origin;
+			this.index = index;
+		}
+
+		@Override
+		public Violations check() throws IOException {
+			return this.origin.check();
+		}
+
+		@Override
+		public Violations check(Violations violations) throws IOException {
+			return this.origin.check(violations);
+		}
+
+		@Override
+		public Collection<Package> packages() {
+			return this.index.packages();
+		}
+
+		@Override
+		public PackageIndex index() {
+			return this.index;
+		}
+
+		@Override
+		public Graph dependencies() {
+			return this.origin.dependencies();
+		}
+	}
+}
@@ -3,11 +3,11 @@ package com.example.pdc.rule;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import com.example.pdc.App;
+import com.example.pdc.ClassFile;
 import com.example.pdc.Package;
+import com.example.pdc.PackageIndex;
 import com.example.pdc.Priority;
 import com.example.pdc.Violation;
 
@@ -16,19 +16,24 @@ import com.example.pdc.Violation;
  */
 public final class MissingPackageRule implements com.example.pdc.Rule {
 
+	/**
+	 * The version of what this rule reports, for {@link MemoizedRule}; increase
+	 * it whenever the rule changes.
+	 */
+	public static final int VERSION = 1;
+
 	@Override
 	public Collection<Violation> check(App app) throws IOException {
 		final Collection<Violation> violations = new ArrayList<>();
 
-		final List<String> packageNames = app.packages().stream().map(Package::name).collect(Collectors.toList());
-
-		for (final Package pkg : app.packages()) {
-			for (final Class<?> abstraction : pkg.abstractions()) {
-				final String expectedPackage = pkg.name() + "." + abstraction.getSimpleName().toLowerCase();
-				if (!packageNames.contains(expectedPackage)) {
+		final PackageIndex index = app.index();
+		for (final Package pkg : index.packages()) {
+			for (final ClassFile abstraction : index.abstractions(pkg.name())) {
+				final String expectedPackage = pkg.name() + "." + abstraction.simpleName().toLowerCase();
+				if (!index.contains(expectedPackage)) {
 					violations.add(new Violation(pkg.name(),
 							String.format("Expected package '%s' for abstraction '%s' is missing.", expectedPackage,
-									abstraction.getSimpleName()),
+									abstraction.simpleName()),
 							Priority.HIGH));
 				}
 			}
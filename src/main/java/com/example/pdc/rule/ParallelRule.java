@@ -0,0 +1,197 @@
+package com.example.pdc.rule;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.example.pdc.App;
+import com.example.pdc.Priority;
+import com.example.pdc.Rule;
+import com.example.pdc.Violation;
+import com.example.pdc.Violations;
+
+/**
+ * A rule that applies several rules concurrently on an executor. Each rule has
+ * its own timeout, counted from the moment it starts to run. A rule that fails
+ * or times out is reported as a violation of its own; the violations of all
+ * other rules are kept. A timed-out rule is interrupted and its late results
+ * are dropped. The timeouts run on a scheduler; the timeout of a rule that
+ * finishes in time is cancelled.
+ */
+public final class ParallelRule implements Rule {
+	private final Collection<Rule> rules;
+	private final Executor executor;
+	private final ScheduledExecutorService scheduler;
+	private final Duration timeout;
+
+	/**
+	 * Creates a ParallelRule that runs the timeouts of each check on a
+	 * scheduler of its own, which is shut down when the check is done.
+	 *
+	 * @param rules    The rules to apply.
+	 * @param executor The executor that runs the rules.
+	 * @param timeout  The time each single rule may take.
+	 */
+	public ParallelRule(Collection<Rule> rules, Executor executor, Duration timeout) {
+		this(rules, executor, null, timeout);
+	}
+
+	/**
+	 * Creates a ParallelRule.
+	 *
+	 * @param rules     The rules to apply.
+	 * @param executor  The executor that runs the rules.
+	 * @param scheduler The scheduler that runs the timeouts; the caller shuts
+	 *                  it down.
+	 * @param timeout   The time each single rule may take.
+	 */
+	public ParallelRule(Collection<Rule> rules, Executor executor, ScheduledExecutorService scheduler,
+			Duration timeout) {
+		this.rules = Objects.requireNonNull(rules);
+		this.executor = Objects.requireNonNull(executor);
+		this.scheduler = scheduler;
+		this.timeout = Objects.requireNonNull(timeout);
+	}
+
+	@Override
+	public Collection<Violation> check(App app) throws IOException {
+		return this.check(app, new Violations()).sorted();
+	}
+
+	/**
+	 * Applies the rules, reporting the violations of each rule, or its failure,
+	 * as soon as the rule is done. Rules that have not started yet are skipped
+	 * once the violations are {@link Violations#done() done}.
+	 *
+	 * @param app        The app to check.
+	 * @param violations The violations to report to.
+	 * @return The given violations, once all rules are done.
+	 * @throws IOException If interrupted while waiting for the rules.
+	 */
+	public Violations check(App app, Violations violations) throws IOException {
+		final List<CompletableFuture<Void>> runs = new ArrayList<>();
+		final ScheduledExecutorService timer = this.scheduler == null ? this.scheduler() : this.scheduler;
+		try {
+			for (final Rule rule : this.rules) {
+				final CompletableFuture<Void> run = new CompletableFuture<>();
+				run.whenComplete((result, failure) -> {
+					if (failure != null) {
+						violations.add(this.failure(rule, failure));
+					}
+				});
+				runs.add(run);
+				this.executor.execute(new Run(rule, app, run, violations, timer));
+			}
+			CompletableFuture.allOf(runs.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Rule check interrupted");
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			if (timer != this.scheduler) {
+				timer.shutdownNow();
+			}
+		}
+		return violations;
+	}
+
+	/**
+	 * Creates the scheduler of a single check, whose thread does not keep the
+	 * JVM alive and which drops cancelled timeouts at once.
+	 */
+	private ScheduledExecutorService scheduler() {
+		final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+			final Thread thread = new Thread(runnable, "pdc-rule-timeout");
+			thread.setDaemon(true);
+			return thread;
+		});
+		timer.setRemoveOnCancelPolicy(true);
+		return timer;
+	}
+
+	private Violation failure(Rule rule, Throwable failure) {
+		final String name = rule.getClass().getSimpleName().isEmpty() ? rule.getClass().getName()
+				: rule.getClass().getSimpleName();
+		if (failure instanceof TimeoutException) {
+			return new Violation(name, String.format("Rule timed out after %d ms and was skipped.",
+					this.timeout.toMillis()), Priority.MEDIUM);
+		}
+		return new Violation(name, String.format("Rule failed and was skipped: %s", failure), Priority.MEDIUM);
+	}
+
+	/**
+	 * A single rule running on the executor. Whichever comes first, the result
+	 * or the timeout, completes the run; the lock keeps the two apart. A result
+	 * in time cancels the timeout.
+	 */
+	private final class Run implements Runnable {
+		private final Rule rule;
+		private final App app;
+		private final CompletableFuture<Void> run;
+		private final Violations violations;
+		private final ScheduledExecutorService timer;
+		private boolean done;
+		private boolean timedOut;
+
+		Run(Rule rule, App app, CompletableFuture<Void> run, Violations violations,
+				ScheduledExecutorService timer) {
+			this.rule = rule;
+			this.app = app;
+			this.run = run;
+			this.violations = violations;
+			this.timer = timer;
+		}
+
+		@Override
+		public void run() {
+			if (this.violations.done()) {
+				this.run.complete(null);
+				return;
+			}
+			final Thread worker = Thread.currentThread();
+			final ScheduledFuture<?> expiry = this.timer.schedule(() -> {
+				synchronized (this) {
+					if (!this.done) {
+						this.timedOut = true;
+						this.run.completeExceptionally(new TimeoutException());
+						worker.interrupt();
+					}
+				}
+			}, timeout.toNanos(), TimeUnit.NANOSECONDS);
+			Collection<Violation> result = null;
+			Throwable failure = null;
+			try {
+				result = new ArrayList<>(this.rule.check(this.app));
+			} catch (Throwable e) {
+				// Errors too, so the timeout is cancelled and the run completes.
+				failure = e;
+			}
+			synchronized (this) {
+				this.done = true;
+				expiry.cancel(false);
+				if (this.timedOut) {
+					// Clears the interrupt, the pool thread runs other work next.
+					Thread.interrupted();
+				} else if (failure != null) {
+					this.run.completeExceptionally(failure);
+				} else {
+					this.violations.addAll(result);
+					this.run.complete(null);
+				}
+			}
+		}
+	}
+}
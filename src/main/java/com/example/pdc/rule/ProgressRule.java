@@ -0,0 +1,33 @@
+package com.example.pdc.rule;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Objects;
+
+import com.example.pdc.App;
+import com.example.pdc.Progress;
+import com.example.pdc.Rule;
+import com.example.pdc.Violation;
+
+/**
+ * A decorator for a rule that reports to a {@link Progress} when the rule has
+ * finished, whether it found violations or failed.
+ */
+public final class ProgressRule implements Rule {
+	private final Rule origin;
+	private final Progress progress;
+
+	public ProgressRule(Rule rule, Progress progress) {
+		this.origin = Objects.requireNonNull(rule);
+		this.progress = Objects.requireNonNull(progress);
+	}
+
+	@Override
+	public Collection<Violation> check(App app) throws IOException {
+		try {
+			return this.origin.check(app);
+		} finally {
+			this.progress.ruleFinished();
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package com.example.pdc.rule;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.pdc.Priority;
+import com.example.pdc.Violation;
+
+/**
+ * The memoized results of {@link MemoizedRule}s: the violations of a rule for
+ * one package, keyed by rule id, rule version and package fingerprint. Safe to
+ * share between threads and rules.
+ * <p>
+ * A store on a file loads it on first use; {@link #save()} replaces it
+ * atomically. Once the file holds more than {@value #MAX_ENTRIES} results, only
+ * those used since loading are written again. Delete the file to reset the
+ * store. A store without file keeps the results in memory only.
+ */
+public final class RuleResults {
+	private static final int MAGIC = 0x50444352;
+	private static final int MAX_ENTRIES = 1_000_000;
+
+	private final Path file;
+	private final Map<String, List<Violation>> results;
+	private final Set<String> used;
+	private volatile boolean loaded;
+
+	/**
+	 * Creates a store in memory.
+	 */
+	public RuleResults() {
+		this.file = null;
+		this.results = new ConcurrentHashMap<>();
+		this.used = ConcurrentHashMap.newKeySet();
+		this.loaded = true;
+	}
+
+	/**
+	 * Creates a store on a file; the file and its directory are created on
+	 * {@link #save()}.
+	 *
+	 * @param file The file of the store.
+	 */
+	public RuleResults(Path file) {
+		this.file = Objects.requireNonNull(file);
+		this.results = new ConcurrentHashMap<>();
+		this.used = ConcurrentHashMap.newKeySet();
+	}
+
+	/**
+	 * Finds the results of a rule for a package.
+	 *
+	 * @param key The key of rule and package.
+	 * @return The violations, empty if not known.
+	 * @throws IOException If the file cannot be read.
+	 */
+	public Optional<List<Violation>> find(String key) throws IOException {
+		if (!this.loaded) {
+			this.load();
+		}
+		final List<Violation> found = this.results.get(key);
+		if (found != null) {
+			this.used.add(key);
+		}
+		return Optional.ofNullable(found);
+	}
+
+	/**
+	 * Keeps the results of a rule for a package.
+	 *
+	 * @param key        The key of rule and package.
+	 * @param violations The violations.
+	 */
+	public void put(String key, List<Violation> violations) {
+		this.results.put(key, Collections.unmodifiableList(new ArrayList<>(violations)));
+		this.used.add(key);
+	}
+
+	/**
+	 * Writes the results to the file.
+	 *
+	 * @throws IOException If the file cannot be written.
+	 */
+	public synchronized void save() throws IOException {
+		if (this.file == null || this.used.isEmpty()) {
+			return;
+		}
+		final List<Map.Entry<String, List<Violation>>> entries = new ArrayList<>();
+		for (final Map.Entry<String, List<Violation>> entry : this.results.entrySet()) {
+			if (this.results.size() <= MAX_ENTRIES || this.used.contains(entry.getKey())) {
+				entries.add(entry);
+			}
+		}
+		final Path directory = this.file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		final Path temp = directory.resolve(UUID.randomUUID() + ".tmp");
+		try (OutputStream stream = Files.newOutputStream(temp);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+			out.writeInt(MAGIC);
+			out.writeInt(entries.size());
+			for (final Map.Entry<String, List<Violation>> entry : entries) {
+				out.writeUTF(entry.getKey());
+				out.writeInt(entry.getValue().size());
+				for (final Violation violation : entry.getValue()) {
+					out.writeUTF(violation.location());
+					out.writeUTF(violation.message());
+					out.writeUTF(violation.priority().name());
+				}
+			}
+		} catch (IOException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+		Files.move(temp, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private synchronized void load() throws IOException {
+		if (this.loaded) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.file)))) {
+			if (in.readInt() == MAGIC) {
+				final int count = in.readInt();
+				for (int i = 0; i < count; i++) {
+					final String key = in.readUTF();
+					final int size = in.readInt();
+					final List<Violation> violations = new ArrayList<>(size);
+					for (int v = 0; v < size; v++) {
+						violations.add(new Violation(in.readUTF(), in.readUTF(), Priority.valueOf(in.readUTF())));
+					}
+					this.results.putIfAbsent(key, Collections.unmodifiableList(violations));
+				}
+			}
+		} catch (NoSuchFileException e) {
+			// Nothing memoized yet.
+		} catch (IOException | IllegalArgumentException e) {
+			// A corrupt store only costs memoized results.
+		}
+		this.loaded = true;
+	}
+}
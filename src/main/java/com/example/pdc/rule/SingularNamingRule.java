@@ -6,7 +6,9 @@ import java.util.Collection;
 import java.util.List;
 
 import com.example.pdc.App;
+import com.example.pdc.ClassFile;
 import com.example.pdc.Package;
+import com.example.pdc.PackageIndex;
 import com.example.pdc.Priority;
 import com.example.pdc.Violation;
 
@@ -15,6 +17,12 @@ import com.example.pdc.Violation;
  */
 public final class SingularNamingRule implements com.example.pdc.Rule {
 
+	/**
+	 * The version of what this rule reports, for {@link MemoizedRule}; increase
+	 * it whenever the rule changes.
+	 */
+	public static final int VERSION = 1;
+
 	private static final String PLURAL_SUFFIX = "s";
 	private static final List<String> EXCEPTIONS = java.util.Arrays.asList("ISOS");
 
@@ -22,9 +30,10 @@ public final class SingularNamingRule implements com.example.pdc.Rule {
 	public Collection<Violation> check(App app) throws IOException {
 		final Collection<Violation> violations = new ArrayList<>();
 
-		for (final Package pkg : app.packages()) {
-			for (final Class<?> abstraction : pkg.abstractions()) {
-				final String name = abstraction.getSimpleName();
+		final PackageIndex index = app.index();
+		for (final Package pkg : index.packages()) {
+			for (final ClassFile abstraction : index.abstractions(pkg.name())) {
+				final String name = abstraction.simpleName();
 				if (name.endsWith(PLURAL_SUFFIX) && !EXCEPTIONS.contains(name)) {
 					violations.add(new Violation(pkg.name(),
 							String.format("Abstraction name '%s' is plural. Use a singular form instead.", name),
@@ -0,0 +1,148 @@
+package com.example.pdc.user;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import com.example.pdc.App;
+import com.example.pdc.Archive;
+import com.example.pdc.History;
+import com.example.pdc.Metrics;
+import com.example.pdc.Package;
+import com.example.pdc.Progress;
+import com.example.pdc.Rule;
+import com.example.pdc.Violation;
+import com.example.pdc.app.PipelinedPDCApp;
+import com.example.pdc.archive.StreamArchive;
+import com.example.pdc.classfile.ClassFileCache;
+import com.example.pdc.metric.MeteredApp;
+import com.example.pdc.metric.MeteredRule;
+import com.example.pdc.rule.ProgressRule;
+
+/**
+ * A check of an uploaded archive that runs in the background. The upload is
+ * parsed while it is streamed, without a temporary file, or read into memory
+ * first if the job has to wait for others; graph building and rules run after
+ * the upload request has returned. The view polls the progress and picks up the
+ * results once the job is done; the job then records them in the history. The
+ * phases of the check and each rule are recorded in the metrics of the
+ * application. The rules run concurrently on the common pool, each with a
+ * timeout. {@link AnalysisJobs} runs the jobs.
+ */
+public final class AnalysisJob implements Runnable {
+
+	private final String name;
+	private InputStream upload;
+	private final Collection<Rule> rules;
+	private final Path cacheDirectory;
+	private final History history;
+	private final Metrics metrics;
+	private final Duration timeout;
+	private final Progress progress;
+	private volatile Collection<Package> packages;
+	private volatile List<Violation> violations;
+	private volatile Exception failure;
+	private volatile boolean done;
+
+	/**
+	 * Creates an AnalysisJob.
+	 *
+	 * @param name    The name of the uploaded archive.
+	 * @param upload  The stream of the uploaded archive; closed by the job.
+	 * @param rules   All rules to be applied.
+	 * @param cache   The directory of the class file cache.
+	 * @param history The history that records the results.
+	 * @param metrics The metrics to record to.
+	 * @param timeout The time each single rule may take.
+	 */
+	public AnalysisJob(String name, InputStream upload, Collection<Rule> rules, Path cache,
+			History history, Metrics metrics, Duration timeout) {
+		this.name = Objects.requireNonNull(name);
+		this.upload = Objects.requireNonNull(upload);
+		this.rules = Objects.requireNonNull(rules);
+		this.cacheDirectory = Objects.requireNonNull(cache);
+		this.history = Objects.requireNonNull(history);
+		this.metrics = Objects.requireNonNull(metrics);
+		this.timeout = Objects.requireNonNull(timeout);
+		this.progress = new Progress();
+	}
+
+	/**
+	 * Reads the upload into memory, so the job can wait in a queue after the
+	 * upload request has ended; to be called before the job runs.
+	 *
+	 * @throws IOException If the upload cannot be read.
+	 */
+	void buffer() throws IOException {
+		try (InputStream input = this.upload) {
+			this.upload = new ByteArrayInputStream(input.readAllBytes());
+		}
+	}
+
+	@Override
+	public void run() {
+		final Collection<Rule> reporting = new ArrayList<>();
+		for (final Rule rule : this.rules) {
+			reporting.add(new ProgressRule(new MeteredRule(rule, this.metrics), this.progress));
+		}
+		try (Archive archive = new StreamArchive(this.upload)) {
+			// A cache of its own, so its summaries are dropped with the check.
+			final ClassFileCache cache = new ClassFileCache(this.cacheDirectory);
+			final App app = new MeteredApp(new PipelinedPDCApp(archive, reporting, ForkJoinPool.commonPool(),
+					4 * ForkJoinPool.getCommonPoolParallelism() + 4, cache, this.progress, this.metrics,
+					ForkJoinPool.commonPool(), this.timeout), this.metrics);
+			this.packages = app.packages();
+			this.violations = new ArrayList<>(app.check().sorted());
+		} catch (IOException | RuntimeException e) {
+			this.failure = e;
+		} finally {
+			this.progress.archiveRead();
+			// The view shows the results without waiting for the history.
+			this.done = true;
+		}
+		try {
+			if (this.failure == null) {
+				this.history.record(this.name, this.packages, this.violations);
+			}
+		} catch (IOException | RuntimeException e) {
+			// The results are shown even if they cannot be recorded.
+			e.printStackTrace();
+		}
+	}
+
+	public Progress progress() {
+		return this.progress;
+	}
+
+	public boolean isDone() {
+		return this.done;
+	}
+
+	/**
+	 * The packages found, once the job is done; null if it failed.
+	 */
+	public Collection<Package> packages() {
+		return this.packages;
+	}
+
+	/**
+	 * The violations found, once the job is done; null if it failed.
+	 */
+	public List<Violation> violations() {
+		return this.violations;
+	}
+
+	/**
+	 * The reason the job failed, or null.
+	 */
+	public Exception failure() {
+		return this.failure;
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.pdc.user;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.example.pdc.History;
+import com.example.pdc.Metrics;
+import com.example.pdc.Rule;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Runs the analysis jobs of the application in the background, at most
+ * {@code pdc.analysis.jobs} (by default 2) at once. The threads are stopped
+ * when the application is undeployed. Each job has a class file cache of its
+ * own, which is dropped with the job; the jobs share only the cache directory
+ * {@code pdc.cache.dir}, by default {@code pdc-cache} in the temporary
+ * directory. Each rule of a job may take {@code pdc.rule.timeout}
+ * seconds, by default 300.
+ * <p>
+ * A job that can run at once parses the upload while it is streamed, and the
+ * upload request waits until the upload is read. Otherwise the upload is read
+ * into memory and the job waits in a queue, so the request returns without
+ * waiting for the jobs ahead of it; the queued jobs start in order as others
+ * finish.
+ */
+@ApplicationScoped
+public class AnalysisJobs {
+
+	private static final int JOBS = Integer.getInteger("pdc.analysis.jobs", 2);
+	private static final Path CACHE_DIRECTORY = Paths
+			.get(System.getProperty("pdc.cache.dir", System.getProperty("java.io.tmpdir") + "/pdc-cache"));
+	private static final Duration TIMEOUT = Duration.ofSeconds(Long.getLong("pdc.rule.timeout", 300));
+
+	private Semaphore running;
+	private ExecutorService streaming;
+	private ExecutorService queued;
+
+	@PostConstruct
+	public void open() {
+		// Fair, so a queued job is not overtaken by later uploads.
+		this.running = new Semaphore(JOBS, true);
+		// Jobs run on their own threads, as they wait for the pool that parses.
+		final ThreadFactory threads = runnable -> {
+			final Thread thread = new Thread(runnable, "pdc-analysis");
+			thread.setDaemon(true);
+			return thread;
+		};
+		this.streaming = Executors.newCachedThreadPool(threads);
+		this.queued = Executors.newSingleThreadExecutor(threads);
+	}
+
+	/**
+	 * Starts a check of an upload, or queues it if too many jobs are running.
+	 *
+	 * @param name    The name of the uploaded archive.
+	 * @param upload  The stream of the uploaded archive; closed by the job.
+	 * @param rules   All rules to be applied.
+	 * @param history The history that records the results.
+	 * @param metrics The metrics to record to.
+	 * @return The job, to be polled for its progress and results.
+	 * @throws IOException          If the upload cannot be read into memory.
+	 * @throws InterruptedException If interrupted while the upload is read.
+	 */
+	public AnalysisJob start(String name, InputStream upload, Collection<Rule> rules, History history,
+			Metrics metrics) throws IOException, InterruptedException {
+		final AnalysisJob job = new AnalysisJob(name, upload, rules, CACHE_DIRECTORY, history, metrics,
+				TIMEOUT);
+		// tryAcquire with a timeout respects the fairness; without, it would not.
+		if (this.running.tryAcquire(0, TimeUnit.SECONDS)) {
+			this.run(job);
+			// The container may discard the upload once the request has ended.
+			job.progress().awaitArchiveRead();
+		} else {
+			job.buffer();
+			this.queued.execute(() -> {
+				try {
+					this.running.acquire();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				this.run(job);
+			});
+		}
+		return job;
+	}
+
+	/**
+	 * Runs a job on a thread of its own; the caller holds a permit, which is
+	 * released when the job is done.
+	 */
+	private void run(AnalysisJob job) {
+		this.streaming.execute(() -> {
+			try {
+				job.run();
+			} finally {
+				this.running.release();
+			}
+		});
+	}
+
+	@PreDestroy
+	public void close() {
+		this.queued.shutdownNow();
+		this.streaming.shutdownNow();
+	}
+}
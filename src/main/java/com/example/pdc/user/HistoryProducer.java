@@ -0,0 +1,33 @@
+package com.example.pdc.user;
+
+import java.io.IOException;
+
+import com.example.pdc.History;
+import com.example.pdc.history.HibernateHistory;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+
+/**
+ * Produces the one History of the application. The database is given by the
+ * system properties {@code pdc.history.url}, {@code pdc.history.user} and
+ * {@code pdc.history.password}; by default an embedded H2 database in the
+ * temporary directory.
+ */
+@ApplicationScoped
+public class HistoryProducer {
+
+	@Produces
+	@ApplicationScoped
+	public History history() {
+		return new HibernateHistory(
+				System.getProperty("pdc.history.url",
+						"jdbc:h2:file:" + System.getProperty("java.io.tmpdir") + "/pdc-history"),
+				System.getProperty("pdc.history.user", "sa"), System.getProperty("pdc.history.password", ""));
+	}
+
+	public void close(@Disposes History history) throws IOException {
+		history.close();
+	}
+}
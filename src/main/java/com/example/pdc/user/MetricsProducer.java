@@ -0,0 +1,62 @@
+package com.example.pdc.user;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.example.pdc.Metrics;
+import com.example.pdc.metric.MetricsBean;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+
+/**
+ * Produces the one Metrics of the application and registers them on the
+ * platform MBean server as {@value #NAME} while the application runs. The
+ * Metrics are produced without scope, as a final class cannot be proxied;
+ * every injection point gets the same instance. Beans that are serialized, such
+ * as views, inject this producer instead, whose proxy survives serialization,
+ * and ask it for the Metrics when they need them.
+ */
+@ApplicationScoped
+public class MetricsProducer {
+	private static final String NAME = "com.example.pdc:type=Metrics";
+
+	private final Metrics metrics = new Metrics();
+
+	@PostConstruct
+	public void register() {
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(new MetricsBean(this.metrics), name);
+			}
+		} catch (JMException e) {
+			// The metrics are still served over HTTP.
+			e.printStackTrace();
+		}
+	}
+
+	@Produces
+	public Metrics metrics() {
+		return this.metrics;
+	}
+
+	@PreDestroy
+	public void unregister() {
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			e.printStackTrace();
+		}
+	}
+}
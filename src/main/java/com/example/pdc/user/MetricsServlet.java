@@ -0,0 +1,38 @@
+package com.example.pdc.user;
+
+import java.io.IOException;
+import java.net.InetAddress;
+
+import com.example.pdc.Metrics;
+import com.example.pdc.metric.MetricsText;
+
+import jakarta.inject.Inject;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the metrics of all checks in the Prometheus text format at
+ * {@code /metrics}, for a scraper on the same host; requests from other hosts
+ * are forbidden.
+ */
+@WebServlet("/metrics")
+public class MetricsServlet extends HttpServlet {
+	private static final long serialVersionUID = 1L;
+
+	@Inject
+	private transient Metrics metrics;
+
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		if (!InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress()) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return;
+		}
+		response.setContentType("text/plain; version=0.0.4");
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Cache-Control", "no-store");
+		response.getWriter().write(new MetricsText(this.metrics).toString());
+	}
+}
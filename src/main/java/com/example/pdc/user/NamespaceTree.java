@@ -0,0 +1,184 @@
+package com.example.pdc.user;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import com.example.pdc.Package;
+import com.example.pdc.Violation;
+
+/**
+ * A trie over the namespace segments of all packages, built once per check.
+ * Each namespace knows the number of classes, abstractions and violations in
+ * it and below it, so the view can show them without walking the subtree. The
+ * view asks for the children of a namespace only when it is expanded. The trie
+ * is kept by {@link NamespaceTrees}, not in the view state.
+ */
+public final class NamespaceTree {
+
+	private final Segment root;
+
+	/**
+	 * Builds the trie in one pass over the packages and one over the violations.
+	 *
+	 * @param packages   All packages of the check.
+	 * @param violations All violations of the check; those not located at a
+	 *                   namespace are not counted.
+	 */
+	public NamespaceTree(Collection<Package> packages, Collection<Violation> violations) {
+		this.root = new Segment("", "");
+		for (final Package pkg : Objects.requireNonNull(packages)) {
+			final int classes = pkg.classes().size();
+			final int abstractions = pkg.abstractions().size();
+			Segment segment = this.root;
+			segment.add(classes, abstractions, 0);
+			for (final String part : this.parts(pkg.name())) {
+				Segment child = segment.children.get(part);
+				if (child == null) {
+					child = new Segment(segment.name.isEmpty() ? part : segment.name + '.' + part, part);
+					segment.children.put(part, child);
+				}
+				segment = child;
+				segment.add(classes, abstractions, 0);
+			}
+		}
+		for (final Violation violation : Objects.requireNonNull(violations)) {
+			final List<Segment> path = this.path(violation.location());
+			if (path != null) {
+				path.forEach(segment -> segment.add(0, 0, 1));
+			}
+		}
+	}
+
+	/**
+	 * Returns the namespace for the whole code base.
+	 */
+	public Namespace root() {
+		return this.root.namespace();
+	}
+
+	/**
+	 * Returns the namespaces directly below a namespace, sorted by name.
+	 *
+	 * @param name The name of the namespace, empty for the root.
+	 * @return The child namespaces, empty if there are none.
+	 */
+	public List<Namespace> children(String name) {
+		final List<Segment> path = this.path(name);
+		if (path == null) {
+			return Collections.emptyList();
+		}
+		final Collection<Segment> children = path.get(path.size() - 1).children.values();
+		final List<Namespace> namespaces = new ArrayList<>(children.size());
+		children.forEach(child -> namespaces.add(child.namespace()));
+		return namespaces;
+	}
+
+	/**
+	 * Returns the segments from the root down to a namespace, or null if there
+	 * is no such namespace.
+	 */
+	private List<Segment> path(String name) {
+		final List<Segment> path = new ArrayList<>();
+		Segment segment = this.root;
+		path.add(segment);
+		for (final String part : this.parts(name)) {
+			segment = segment.children.get(part);
+			if (segment == null) {
+				return null;
+			}
+			path.add(segment);
+		}
+		return path;
+	}
+
+	private String[] parts(String name) {
+		return name.isEmpty() ? new String[0] : name.split("\\.");
+	}
+
+	/**
+	 * A node of the trie. The counts include all namespaces below.
+	 */
+	private static final class Segment {
+		private final String name;
+		private final String part;
+		private final Map<String, Segment> children = new TreeMap<>();
+		private int classes;
+		private int abstractions;
+		private int violations;
+
+		Segment(String name, String part) {
+			this.name = name;
+			this.part = part;
+		}
+
+		void add(int classCount, int abstractionCount, int violationCount) {
+			this.classes += classCount;
+			this.abstractions += abstractionCount;
+			this.violations += violationCount;
+		}
+
+		Namespace namespace() {
+			return new Namespace(this.name, this.part, this.classes, this.abstractions, this.violations,
+					this.children.isEmpty());
+		}
+	}
+
+	/**
+	 * The data of a single tree node: a namespace and its counts. It does not
+	 * refer to the trie, so expanded nodes stay small in the view state.
+	 */
+	public static final class Namespace implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private final String name;
+		private final String segment;
+		private final int classes;
+		private final int abstractions;
+		private final int violations;
+		private final boolean leaf;
+
+		Namespace(String name, String segment, int classes, int abstractions, int violations, boolean leaf) {
+			this.name = name;
+			this.segment = segment;
+			this.classes = classes;
+			this.abstractions = abstractions;
+			this.violations = violations;
+			this.leaf = leaf;
+		}
+
+		public String name() {
+			return this.name;
+		}
+
+		public String segment() {
+			return this.segment;
+		}
+
+		public int classes() {
+			return this.classes;
+		}
+
+		public int abstractions() {
+			return this.abstractions;
+		}
+
+		public int violations() {
+			return this.violations;
+		}
+
+		public boolean isLeaf() {
+			return this.leaf;
+		}
+
+		@Override
+		public String toString() {
+			return this.segment;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.pdc.user;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import jakarta.enterprise.context.SessionScoped;
+
+/**
+ * Keeps the namespace trees of the last checks of a session, so the views keep
+ * only a key in their state instead of the whole trie. A session holds the
+ * trees of its {@value #SIZE} latest checks, e.g. of several browser tabs; the
+ * trees are not serialized with the session, so a passivated session comes
+ * back without them.
+ */
+@SessionScoped
+public class NamespaceTrees implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int SIZE = 4;
+
+	private transient Map<String, NamespaceTree> trees;
+
+	/**
+	 * Keeps a tree, dropping the oldest one if the session holds too many.
+	 *
+	 * @param tree The tree of a finished check.
+	 * @return The key of the tree.
+	 */
+	public synchronized String add(NamespaceTree tree) {
+		final String key = UUID.randomUUID().toString();
+		this.trees().put(key, tree);
+		return key;
+	}
+
+	/**
+	 * Returns the namespaces directly below a namespace of a tree.
+	 *
+	 * @param key  The key of the tree.
+	 * @param name The name of the namespace, empty for the root.
+	 * @return The child namespaces, empty if there are none or the tree is no
+	 *         longer kept.
+	 */
+	public synchronized List<NamespaceTree.Namespace> children(String key, String name) {
+		final NamespaceTree tree = key == null ? null : this.trees().get(key);
+		return tree == null ? Collections.emptyList() : tree.children(name);
+	}
+
+	private Map<String, NamespaceTree> trees() {
+		if (this.trees == null) {
+			this.trees = new LinkedHashMap<>() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, NamespaceTree> eldest) {
+					return this.size() > SIZE;
+				}
+			};
+		}
+		return this.trees;
+	}
+}
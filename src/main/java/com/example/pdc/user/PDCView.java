@@ -1,43 +1,29 @@
 package com.example.pdc.user;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.Serializable;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
-import org.apache.commons.io.IOUtils;
 import org.primefaces.event.FileUploadEvent;
+import org.primefaces.event.NodeExpandEvent;
 import org.primefaces.event.NodeSelectEvent;
 import org.primefaces.model.DefaultTreeNode;
 import org.primefaces.model.TreeNode;
 import org.primefaces.model.file.UploadedFile;
 
-import com.example.pdc.App;
-import com.example.pdc.Dependency;
+import com.example.pdc.History;
 import com.example.pdc.Package;
+import com.example.pdc.Progress;
 import com.example.pdc.Rule;
 import com.example.pdc.Violation;
-import com.example.pdc.app.PDCApp;
-import com.example.pdc.graph.DependencyGraph;
-import com.example.pdc.pkg.SimplePackage;
 import com.example.pdc.rule.MissingPackageRule;
 import com.example.pdc.rule.SingularNamingRule;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.faces.view.ViewScoped;
+import jakarta.inject.Inject;
 import jakarta.inject.Named;
 
 /**
@@ -50,9 +36,34 @@ public class PDCView implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	// Node types of the tree: namespaces and the placeholder child of a node
+	// whose children are not built yet.
+	private static final String NAMESPACE = "namespace";
+	private static final String PLACEHOLDER = "placeholder";
+
 	private TreeNode<Object> root;
 	private TreeNode<Object> selectedNode;
+	private String tree;
 	private List<Violation> analysisResults;
+	private transient AnalysisJob job;
+
+	// Namespace trees of the session; the view keeps only the key of its tree.
+	@Inject
+	private NamespaceTrees trees;
+
+	// Background jobs of the application.
+	@Inject
+	private AnalysisJobs jobs;
+
+	// Shared history of all checks.
+	@Inject
+	private History history;
+
+	// Shared metrics of all checks, through the serializable proxy of their
+	// producer.
+	@Inject
+	private MetricsProducer metrics;
+
 	private List<Rule> rules;
 
 	@PostConstruct
@@ -96,139 +107,87 @@ public class PDCView implements Serializable {
 	}
 
 	/**
-	 * Processes the file upload, initializes the App, and performs the check.
+	 * Processes the file upload: starts the check in the background. The
+	 * request returns once the upload is read; the results are picked up by
+	 * {@link #poll()}.
 	 */
 	public void handleFileUpload(FileUploadEvent event) {
 		UploadedFile uploadedFile = event.getFile();
 		if (uploadedFile != null) {
 			try {
-				Path tempPath = Files.createTempFile("uploaded-", ".tmp");
-				try (InputStream input = uploadedFile.getInputStream();
-						FileOutputStream output = new FileOutputStream(tempPath.toFile())) {
-					IOUtils.copy(input, output);
-				}
-				File tempFile = tempPath.toFile();
-
-				// Manual composition of the application
-				Collection<Package> packages = this.buildPackages(tempFile);
-				Collection<Dependency> dependencies = this.analyzeDependencies(packages);
-				DependencyGraph graph = new DependencyGraph(dependencies);
-
-				App app = new PDCApp(packages, rules, graph);
-
-				this.root = this.buildTreeNode(packages);
-				this.root.setExpanded(true);
-
-				// Execute app check and store results.
-				this.analysisResults = new ArrayList<>(app.check().sorted());
-
-				tempFile.delete(); // Delete temporary file.
+				// Manual composition of the application happens in the job.
+				this.job = this.jobs.start(uploadedFile.getFileName(), uploadedFile.getInputStream(),
+						this.rules, this.history, this.metrics.metrics());
 			} catch (IOException e) {
 				// Better error handling in the UI would be useful here.
 				e.printStackTrace();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
 			}
 		}
 	}
 
 	/**
-	 * Builds the Package objects from the uploaded file.
+	 * Picks up the results once the background check is done. Called
+	 * periodically by the view while {@link #isRunning()}.
 	 */
-	private Collection<Package> buildPackages(File file) throws IOException {
-		Map<String, Set<Class<?>>> packageClasses = new HashMap<>();
-		Map<String, Set<Class<?>>> packageAbstractions = new HashMap<>();
-
-		try (ZipFile zipFile = new ZipFile(file)) {
-			java.util.Enumeration<? extends ZipEntry> entries = zipFile.entries();
-			while (entries.hasMoreElements()) {
-				ZipEntry entry = entries.nextElement();
-				if (entry.getName().endsWith(".class")) {
-					String className = entry.getName().replace('/', '.').replace(".class", "");
-					try {
-						Class<?> clazz = Class.forName(className);
-						String packageName = clazz.getPackage().getName();
-						packageClasses.computeIfAbsent(packageName, k -> new HashSet<>()).add(clazz);
-						if (clazz.isInterface() || java.lang.reflect.Modifier.isAbstract(clazz.getModifiers())) {
-							packageAbstractions.computeIfAbsent(packageName, k -> new HashSet<>()).add(clazz);
-						}
-					} catch (ClassNotFoundException ignored) {
-						// ignore
-					}
-				}
+	public void poll() {
+		if (this.job != null && this.job.isDone()) {
+			if (this.job.failure() == null) {
+				this.root = this.buildTreeNode(this.job.packages(), this.job.violations());
+				this.root.setExpanded(true);
+				this.analysisResults = this.job.violations();
+			} else {
+				this.job.failure().printStackTrace();
 			}
+			this.job = null;
 		}
+	}
 
-		Map<String, Package> packageMap = new HashMap<>();
-		packageClasses.keySet().forEach(pkgName -> packageMap.put(pkgName,
-				new SimplePackage(pkgName, packageClasses.get(pkgName), packageAbstractions.get(pkgName))));
-
-		return packageMap.values();
+	public boolean isRunning() {
+		return this.job != null;
 	}
 
 	/**
-	 * Analyzes dependencies between packages. NOTE: This is a simplified stub. A
-	 * real implementation would require bytecode analysis libraries to scan for
-	 * dependencies.
+	 * The progress of the running check: entries parsed, packages found and
+	 * rules finished; null if no check is running.
 	 */
-	private Collection<Dependency> analyzeDependencies(Collection<Package> packages) {
-		// A placeholder implementation. In a real-world scenario, this method
-		// would contain complex logic to analyze class bytecode.
-		Set<Dependency> dependencies = new HashSet<>();
-		Map<String, Package> packageMap = packages.stream().collect(Collectors.toMap(Package::name, p -> p));
-
-		if (packageMap.containsKey("com.example.billing.a") && packageMap.containsKey("com.example.billing.b")) {
-			dependencies.add(new Dependency() {
-				@Override
-				public Package source() {
-					return packageMap.get("com.example.billing.a");
-				}
-
-				@Override
-				public Package target() {
-					return packageMap.get("com.example.billing.b");
-				}
-			});
-			dependencies.add(new Dependency() {
-				@Override
-				public Package source() {
-					return packageMap.get("com.example.billing.b");
-				}
-
-				@Override
-				public Package target() {
-					return packageMap.get("com.example.billing.a");
-				}
-			});
-		}
-		return dependencies;
+	public Progress getProgress() {
+		return this.job == null ? null : this.job.progress();
 	}
 
 	/**
-	 * Builds the PrimeFaces TreeNode structure from the Package objects.
+	 * Builds the top level of the PrimeFaces TreeNode structure from the
+	 * namespace tree; deeper levels are built on expansion.
 	 */
-	private TreeNode<Object> buildTreeNode(Collection<Package> packages) {
-		Map<String, TreeNode<Object>> treeNodes = new HashMap<>();
+	private TreeNode<Object> buildTreeNode(Collection<Package> packages, Collection<Violation> violations) {
+		this.tree = this.trees.add(new NamespaceTree(packages, violations));
 		TreeNode<Object> rootNode = new DefaultTreeNode<Object>("root", null);
+		this.addChildren(rootNode, "");
+		return rootNode;
+	}
 
-		packages.stream().sorted((p1, p2) -> p1.name().compareTo(p2.name())).forEach(pkg -> {
-			String[] parts = pkg.name().split("\\.");
-			TreeNode<Object> currentNode = rootNode;
-			String currentPath = "";
-
-			for (String part : parts) {
-				if (currentPath.isEmpty()) {
-					currentPath = part;
-				} else {
-					currentPath += "." + part;
-				}
-				if (!treeNodes.containsKey(currentPath)) {
-					TreeNode<Object> newNode = new DefaultTreeNode<Object>(part, currentNode);
-					treeNodes.put(currentPath, newNode);
-				}
-				currentNode = treeNodes.get(currentPath);
-			}
-		});
+	/**
+	 * Processes the expansion of a node in the tree: builds its children on the
+	 * first expansion.
+	 */
+	public void onNodeExpand(NodeExpandEvent event) {
+		@SuppressWarnings("unchecked")
+		TreeNode<Object> node = event.getTreeNode();
+		if (node.getChildCount() == 1 && PLACEHOLDER.equals(node.getChildren().get(0).getType())) {
+			node.getChildren().clear();
+			this.addChildren(node, ((NamespaceTree.Namespace) node.getData()).name());
+		}
+	}
 
-		return rootNode;
+	private void addChildren(TreeNode<Object> parent, String name) {
+		for (NamespaceTree.Namespace namespace : this.trees.children(this.tree, name)) {
+			TreeNode<Object> node = new DefaultTreeNode<Object>(NAMESPACE, namespace, parent);
+			if (!namespace.isLeaf()) {
+				// Shows the node as expandable until its children are built.
+				new DefaultTreeNode<Object>(PLACEHOLDER, null, node);
+			}
+		}
 	}
 
 }
\ No newline at end of file
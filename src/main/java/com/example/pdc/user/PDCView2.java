@@ -1,41 +1,29 @@
 package com.example.pdc.user;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.Serializable;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
-import org.apache.commons.io.IOUtils;
 import org.primefaces.event.FileUploadEvent;
+import org.primefaces.event.NodeExpandEvent;
 import org.primefaces.event.NodeSelectEvent;
 import org.primefaces.model.DefaultTreeNode;
 import org.primefaces.model.TreeNode;
 import org.primefaces.model.file.UploadedFile;
 
-import com.example.pdc.App;
-import com.example.pdc.Dependency;
+import com.example.pdc.History;
 import com.example.pdc.Package;
+import com.example.pdc.Progress;
 import com.example.pdc.Rule;
 import com.example.pdc.Violation;
-import com.example.pdc.app.PDCApp;
-import com.example.pdc.graph.DependencyGraph;
 import com.example.pdc.rule.MissingPackageRule;
 import com.example.pdc.rule.SingularNamingRule;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.faces.view.ViewScoped;
+import jakarta.inject.Inject;
 import jakarta.inject.Named;
 
 /**
@@ -49,9 +37,33 @@ public class PDCView2 implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	// Knotentypen des Baums: Namensräume und das Platzhalter-Kind eines Knotens,
+	// dessen Kinder noch nicht gebaut sind.
+	private static final String NAMESPACE = "namespace";
+	private static final String PLACEHOLDER = "placeholder";
+
 	private TreeNode<Object> root;
 	private TreeNode<Object> selectedNode;
+	private String tree;
 	private List<Violation> analysisResults;
+	private transient AnalysisJob job;
+
+	// Namensraum-Bäume der Sitzung; die Ansicht hält nur den Schlüssel ihres Baums.
+	@Inject
+	private NamespaceTrees trees;
+
+	// Hintergrund-Jobs der Anwendung.
+	@Inject
+	private AnalysisJobs jobs;
+
+	// Gemeinsame Historie aller Prüfungen.
+	@Inject
+	private History history;
+
+	// Gemeinsame Metriken aller Prüfungen, über den serialisierbaren Proxy
+	// ihres Erzeugers.
+	@Inject
+	private MetricsProducer metrics;
 
 	@PostConstruct
 	public void init() {
@@ -82,91 +94,53 @@ public class PDCView2 implements Serializable {
 	}
 
 	/**
-	 * Verarbeitet den Dateiupload, initialisiert die App und führt die Prüfung
-	 * durch.
+	 * Verarbeitet den Dateiupload: startet die Prüfung im Hintergrund. Die
+	 * Anfrage kehrt zurück, sobald der Upload gelesen ist; die Ergebnisse holt
+	 * {@link #poll()} ab.
 	 */
 	public void handleFileUpload(FileUploadEvent event) {
 		UploadedFile uploadedFile = event.getFile();
 		if (uploadedFile != null) {
 			try {
-				Path tempPath = Files.createTempFile("uploaded-", ".tmp");
-				try (InputStream input = uploadedFile.getInputStream();
-						FileOutputStream output = new FileOutputStream(tempPath.toFile())) {
-					IOUtils.copy(input, output);
-				}
-				File tempFile = tempPath.toFile();
-
-				// Manuelle Komposition der Anwendung
-				Collection<Package> packages = this.buildPackages(tempFile);
-				DependencyGraph graph = this.buildDependencyGraph(packages);
-				Collection<Rule> rules = this.buildRules();
-				App app = new PDCApp(packages, rules, graph);
-
-				this.root = this.buildTreeNode(packages);
-				this.root.setExpanded(true);
-
-				// App-Prüfung ausführen und Ergebnisse speichern.
-				this.analysisResults = new ArrayList<>(app.check().sorted());
-
-				tempFile.delete(); // Temporäre Datei löschen.
+				// Manuelle Komposition der Anwendung erfolgt im Job.
+				this.job = this.jobs.start(uploadedFile.getFileName(), uploadedFile.getInputStream(),
+						this.buildRules(), this.history, this.metrics.metrics());
 			} catch (IOException e) {
 				// Bessere Fehlerbehandlung in der UI wäre hier sinnvoll.
 				e.printStackTrace();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
 			}
 		}
 	}
 
 	/**
-	 * Baut die Package-Objekte aus der hochgeladenen Datei.
+	 * Holt die Ergebnisse ab, sobald die Prüfung im Hintergrund fertig ist. Wird
+	 * von der Ansicht periodisch aufgerufen, solange {@link #isRunning()}.
 	 */
-	private Collection<Package> buildPackages(File file) throws IOException {
-		Map<String, Set<Class<?>>> packageClasses = new HashMap<>();
-		Map<String, Set<Class<?>>> packageAbstractions = new HashMap<>();
-
-		try (ZipFile zipFile = new ZipFile(file)) {
-			java.util.Enumeration<? extends ZipEntry> entries = zipFile.entries();
-			while (entries.hasMoreElements()) {
-				ZipEntry entry = entries.nextElement();
-				if (entry.getName().endsWith(".class")) {
-					String className = entry.getName().replace('/', '.').replace(".class", "");
-					try {
-						Class<?> clazz = Class.forName(className);
-						String packageName = clazz.getPackage().getName();
-						packageClasses.computeIfAbsent(packageName, k -> new HashSet<>()).add(clazz);
-						if (clazz.isInterface() || java.lang.reflect.Modifier.isAbstract(clazz.getModifiers())) {
-							packageAbstractions.computeIfAbsent(packageName, k -> new HashSet<>()).add(clazz);
-						}
-					} catch (ClassNotFoundException ignored) {
-						// ignore
-					}
-				}
+	public void poll() {
+		if (this.job != null && this.job.isDone()) {
+			if (this.job.failure() == null) {
+				this.root = this.buildTreeNode(this.job.packages(), this.job.violations());
+				this.root.setExpanded(true);
+				this.analysisResults = this.job.violations();
+			} else {
+				this.job.failure().printStackTrace();
 			}
+			this.job = null;
 		}
+	}
 
-		Map<String, Package> packageMap = new HashMap<>();
-//		packageClasses.keySet().forEach(pkgName -> packageMap.put(pkgName, new SimplePackage(pkgName,
-//				packageClasses.get(pkgName), packageAbstractions.get(pkgName), new ArrayList<>())));
-
-		// TODO: Dependencies aufbauen
-		packageMap.values().forEach(pkg -> {
-			// Hier müsste die Logik zur Analyse der Abhängigkeiten der Klassen
-			// in pkg.classes() stehen und die `dependencies`-Liste befüllt werden.
-			// Dies ist ein komplexer Schritt, der eine tiefere Code-Analyse erfordert.
-		});
-
-		return packageMap.values();
+	public boolean isRunning() {
+		return this.job != null;
 	}
 
 	/**
-	 * Baut den Abhängigkeitsgraphen der Pakete.
+	 * Der Fortschritt der laufenden Prüfung: gelesene Einträge, gefundene Pakete
+	 * und fertige Regeln; null, wenn keine Prüfung läuft.
 	 */
-	private DependencyGraph buildDependencyGraph(Collection<Package> packages) {
-		Collection<Dependency> dependencies = new ArrayList<>();
-		// Logik, um Abhängigkeiten zu finden und Dependency-Objekte zu erstellen, wäre
-		// hier.
-		// Für dieses Beispiel lassen wir dies leer, da die Komplexität der
-		// statischen Codeanalyse den Rahmen sprengen würde.
-		return new DependencyGraph(dependencies);
+	public Progress getProgress() {
+		return this.job == null ? null : this.job.progress();
 	}
 
 	/**
@@ -181,32 +155,37 @@ public class PDCView2 implements Serializable {
 	}
 
 	/**
-	 * Baut die PrimeFaces TreeNode<Object>-Struktur aus den Package-Objekten.
+	 * Baut die oberste Ebene der PrimeFaces TreeNode<Object>-Struktur aus dem
+	 * Namensraum-Baum; tiefere Ebenen entstehen beim Aufklappen.
 	 */
-	private TreeNode<Object> buildTreeNode(Collection<Package> packages) {
-		Map<String, TreeNode<Object>> treeNodes = new HashMap<>();
+	private TreeNode<Object> buildTreeNode(Collection<Package> packages, Collection<Violation> violations) {
+		this.tree = this.trees.add(new NamespaceTree(packages, violations));
 		TreeNode<Object> rootNode = new DefaultTreeNode<Object>("root", null);
+		this.addChildren(rootNode, "");
+		return rootNode;
+	}
 
-		packages.stream().sorted((p1, p2) -> p1.name().compareTo(p2.name())).forEach(pkg -> {
-			String[] parts = pkg.name().split("\\.");
-			TreeNode<Object> currentNode = rootNode;
-			String currentPath = "";
-
-			for (String part : parts) {
-				if (currentPath.isEmpty()) {
-					currentPath = part;
-				} else {
-					currentPath += "." + part;
-				}
-				if (!treeNodes.containsKey(currentPath)) {
-					TreeNode<Object> newNode = new DefaultTreeNode<Object>(part, currentNode);
-					treeNodes.put(currentPath, newNode);
-				}
-				currentNode = treeNodes.get(currentPath);
-			}
-		});
+	/**
+	 * Verarbeitet das Aufklappen eines Knotens im Baum: baut seine Kinder beim
+	 * ersten Aufklappen.
+	 */
+	public void onNodeExpand(NodeExpandEvent event) {
+		@SuppressWarnings("unchecked")
+		TreeNode<Object> node = event.getTreeNode();
+		if (node.getChildCount() == 1 && PLACEHOLDER.equals(node.getChildren().get(0).getType())) {
+			node.getChildren().clear();
+			this.addChildren(node, ((NamespaceTree.Namespace) node.getData()).name());
+		}
+	}
 
-		return rootNode;
+	private void addChildren(TreeNode<Object> parent, String name) {
+		for (NamespaceTree.Namespace namespace : this.trees.children(this.tree, name)) {
+			TreeNode<Object> node = new DefaultTreeNode<Object>(NAMESPACE, namespace, parent);
+			if (!namespace.isLeaf()) {
+				// Zeigt den Knoten als aufklappbar, bis seine Kinder gebaut sind.
+				new DefaultTreeNode<Object>(PLACEHOLDER, null, node);
+			}
+		}
 	}
 
 }